@@ -27,11 +27,39 @@ package com.avispa.parser;
 import com.avispa.parser.lexer.LexerException;
 import com.avispa.parser.precedence.parser.SyntaxException;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.util.List;
 
 /**
  * @author Rafał Hiszpański
  */
 public interface Parser<O> {
-    List<O> parse(String input) throws LexerException, SyntaxException;
+    List<O> parse(CharSequence input) throws LexerException, SyntaxException;
+
+    /**
+     * Parses all characters read from the reader. The reader is not closed. By default whole input is read into
+     * memory first, parsers able to work on the input arriving in parts override this method.
+     * @param reader input source
+     * @return parser output
+     */
+    default List<O> parse(Reader reader) throws IOException, LexerException, SyntaxException {
+        StringWriter writer = new StringWriter();
+        reader.transferTo(writer);
+        return parse(writer.getBuffer());
+    }
+
+    /**
+     * Parses all bytes read from the channel decoded using provided charset. The channel is not closed.
+     * @param channel input source
+     * @param charset input charset
+     * @return parser output
+     */
+    default List<O> parse(ReadableByteChannel channel, Charset charset) throws IOException, LexerException, SyntaxException {
+        return parse(Channels.newReader(channel, charset));
+    }
 }
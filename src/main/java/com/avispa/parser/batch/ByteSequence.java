@@ -0,0 +1,88 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.batch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Characters view of the bytes range of the buffer. Each byte is read as a single character (ISO-8859-1), which is
+ * exact for ASCII input. The view does not copy the bytes, only {@link #toString()} does.
+ *
+ * @author Rafał Hiszpański
+ */
+final class ByteSequence implements CharSequence {
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+
+    ByteSequence() {
+    }
+
+    private ByteSequence(ByteBuffer buffer, int start, int end) {
+        reset(buffer, start, end);
+    }
+
+    /**
+     * Moves the view to another range
+     * @param buffer buffer with characters
+     * @param start absolute index of the first byte
+     * @param end absolute index after the last byte
+     */
+    void reset(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if(index < 0 || index >= end - start) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length());
+        }
+        return (char) (buffer.get(start + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if(from < 0 || to > length() || from > to) {
+            throw new IndexOutOfBoundsException("Range: [" + from + ", " + to + "), length: " + length());
+        }
+        return new ByteSequence(buffer, start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length()];
+        for(int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (buffer.get(start + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.batch;
+
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.output.OutputTransformer;
+import com.avispa.parser.precedence.parser.SyntaxException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+
+/**
+ * Processes files with one expression per line. The file is memory-mapped and each line is passed to the transformer
+ * as a view of the mapped bytes, so no line strings are created. Bytes are read as ISO-8859-1 characters, which is
+ * exact for ASCII expressions.
+ *
+ * For each input line exactly one output line is written: formatted result or the error message prefixed with
+ * {@link #ERROR_PREFIX}. Line terminators can be either LF or CRLF.
+ *
+ * Any parser can be used as a transformer, e.g. <code>new MappedLineProcessor&lt;&gt;(parser::parse)</code>.
+ *
+ * @author Rafał Hiszpański
+ */
+@Slf4j
+public final class MappedLineProcessor<T> {
+    public static final String ERROR_PREFIX = "ERROR ";
+
+    /**
+     * Files are mapped in segments not longer than this value. Each segment ends at the line end.
+     */
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    private final OutputTransformer<T> transformer;
+    private final Function<? super T, ? extends CharSequence> formatter;
+    private final long maxSegmentSize;
+
+    public MappedLineProcessor(OutputTransformer<T> transformer) {
+        this(transformer, String::valueOf);
+    }
+
+    /**
+     * @param transformer transformer applied to each line
+     * @param formatter converts transformation result to the output line
+     */
+    public MappedLineProcessor(OutputTransformer<T> transformer, Function<? super T, ? extends CharSequence> formatter) {
+        this(transformer, formatter, MAX_SEGMENT_SIZE);
+    }
+
+    MappedLineProcessor(OutputTransformer<T> transformer, Function<? super T, ? extends CharSequence> formatter, long maxSegmentSize) {
+        this.transformer = transformer;
+        this.formatter = formatter;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Processes all lines of the file and writes results to the channel. The channel is not closed.
+     * @param input path to the input file
+     * @param output output channel, results are encoded using UTF-8
+     * @return number of processed lines
+     * @throws IOException when the file can't be read, output can't be written or the line is longer than the segment
+     */
+    public long process(Path input, WritableByteChannel output) throws IOException {
+        Run run = new Run(Channels.newWriter(output, StandardCharsets.UTF_8));
+
+        try(FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while(position < size) {
+                long segmentSize = Math.min(maxSegmentSize, size - position);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, segmentSize);
+
+                int processed = run.processSegment(segment, position + segmentSize == size);
+                if(processed == 0) {
+                    throw new IOException("Line at position " + position + " is longer than " + maxSegmentSize + " bytes");
+                }
+
+                position += processed;
+            }
+        }
+
+        run.writer.flush();
+        return run.lines;
+    }
+
+    /**
+     * State of single {@link #process(Path, WritableByteChannel)} call
+     */
+    private final class Run {
+        private final Writer writer;
+        private final ByteSequence line = new ByteSequence();
+        private long lines;
+
+        private Run(Writer writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * @return number of bytes of all complete lines processed in the segment
+         */
+        private int processSegment(MappedByteBuffer segment, boolean lastSegment) throws IOException {
+            int limit = segment.limit();
+            int lineStart = 0;
+
+            for(int i = 0; i < limit; i++) {
+                if(segment.get(i) == '\n') {
+                    processLine(segment, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+
+            if(lastSegment && lineStart < limit) { // last line without line terminator
+                processLine(segment, lineStart, limit);
+                lineStart = limit;
+            }
+
+            return lineStart;
+        }
+
+        private void processLine(MappedByteBuffer segment, int start, int end) throws IOException {
+            if(end > start && segment.get(end - 1) == '\r') {
+                end--;
+            }
+            line.reset(segment, start, end);
+
+            try {
+                writer.append(formatter.apply(transformer.parse(line)));
+            } catch (SyntaxException | LexerException | RuntimeException e) {
+                log.debug("Line processing failed", e);
+                writer.append(ERROR_PREFIX).append(String.valueOf(e.getMessage()));
+            }
+            writer.append('\n');
+            lines++;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.batch;
+
+import com.avispa.parser.Parser;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses many inputs in parallel using single parser instance. Precedence parsers and shunting-yard keep all parsing
+ * state local to the parse call, so one instance can be shared by all worker threads.
+ *
+ * Results are returned in the order of inputs. Failure of any input does not stop the others, its error is stored in
+ * the result.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class ParallelParser<O> {
+    /**
+     * Maximum number of inputs parsed sequentially by single task
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 8;
+
+    private final Parser<O> parser;
+    private final ForkJoinPool pool;
+
+    public ParallelParser(Parser<O> parser) {
+        this(parser, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param parser thread-safe parser
+     * @param pool pool executing parse tasks
+     */
+    public ParallelParser(Parser<O> parser, ForkJoinPool pool) {
+        this.parser = parser;
+        this.pool = pool;
+    }
+
+    /**
+     * @param inputs inputs to parse
+     * @return results in the order of inputs
+     */
+    public List<ParseResult<O>> parseAll(Collection<? extends CharSequence> inputs) {
+        CharSequence[] inputArray = inputs.toArray(new CharSequence[0]);
+        @SuppressWarnings("unchecked")
+        ParseResult<O>[] results = new ParseResult[inputArray.length];
+
+        pool.invoke(new ParseTask(inputArray, results, 0, inputArray.length));
+
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private ParseResult<O> parse(CharSequence input) {
+        try {
+            return ParseResult.success(input, parser.parse(input));
+        } catch (Exception e) {
+            return ParseResult.failure(input, e);
+        }
+    }
+
+    private final class ParseTask extends RecursiveAction {
+        private final CharSequence[] inputs;
+        private final ParseResult<O>[] results;
+        private final int from;
+        private final int to;
+
+        private ParseTask(CharSequence[] inputs, ParseResult<O>[] results, int from, int to) {
+            this.inputs = inputs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= SEQUENTIAL_THRESHOLD) {
+                for(int i = from; i < to; i++) {
+                    results[i] = parse(inputs[i]);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(inputs, results, from, middle), new ParseTask(inputs, results, middle, to));
+            }
+        }
+    }
+}
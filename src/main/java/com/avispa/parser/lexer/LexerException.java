@@ -31,6 +31,10 @@ import org.apache.commons.lang3.StringUtils;
  */
 public class LexerException extends Exception {
     public LexerException(String input) {
-        super("Unknown lexeme at the vicinity of: " + StringUtils.abbreviate(input, "...", 20));
+        this("Unknown lexeme", input);
+    }
+
+    public LexerException(String reason, String input) {
+        super(reason + " at the vicinity of: " + StringUtils.abbreviate(input, "...", 20));
     }
 }
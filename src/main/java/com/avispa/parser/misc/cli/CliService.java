@@ -52,6 +52,10 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static com.avispa.parser.misc.cli.OutputMode.DERIVATION;
 import static com.avispa.parser.misc.cli.OutputMode.EVALUATED;
@@ -60,10 +64,12 @@ import static com.avispa.parser.misc.cli.OutputMode.PARSE_TREE;
 import static com.avispa.parser.misc.cli.OutputMode.PRODUCTION_LIST;
 import static com.avispa.parser.misc.cli.OutputMode.REVERSE_POLISH_NOTATION;
 import static com.avispa.parser.misc.cli.OutputMode.TOKEN_LIST;
+import static com.avispa.parser.misc.cli.ToolOption.COMPILE;
 import static com.avispa.parser.misc.cli.ToolOption.GRAMMAR;
 import static com.avispa.parser.misc.cli.ToolOption.HELP;
 import static com.avispa.parser.misc.cli.ToolOption.INPUT;
 import static com.avispa.parser.misc.cli.ToolOption.OUTPUT;
+import static com.avispa.parser.misc.cli.ToolOption.PARSER;
 import static com.avispa.parser.misc.cli.ToolOption.START;
 
 /**
@@ -84,6 +90,10 @@ public class CliService {
             return "";
         }
 
+        if(commandLine.hasOption(COMPILE.getName())) {
+            return compileParser(commandLine);
+        }
+
         String input;
         if(commandLine.hasOption(INPUT.getName())) {
             input = commandLine.getOptionValue(INPUT.getName());
@@ -92,7 +102,7 @@ public class CliService {
         }
 
         try {
-            if (commandLine.hasOption(GRAMMAR.getName())) {
+            if (commandLine.hasOption(GRAMMAR.getName()) || commandLine.hasOption(PARSER.getName())) {
                 return getPrecedenceParserOutput(commandLine, input);
             } else {
                 return getShuntingYardOutput(commandLine, input);
@@ -126,8 +136,7 @@ public class CliService {
 
     private String getPrecedenceParserOutput(CommandLine commandLine, String input) throws SyntaxException, LexerException, ParserCreationException {
         try {
-            Grammar grammar = loadGrammar(commandLine);
-            PrecedenceParser<Production> parser = ParserFactory.newSimplePrecedenceParser(grammar);
+            PrecedenceParser<Production> parser = loadParser(commandLine);
 
             String output = "";
             if (commandLine.hasOption(OUTPUT.getName())) {
@@ -153,6 +162,28 @@ public class CliService {
         return "";
     }
 
+    private String compileParser(CommandLine commandLine) {
+        Path artifactPath = Path.of(commandLine.getOptionValue(COMPILE.getName()));
+        try (OutputStream output = Files.newOutputStream(artifactPath)) {
+            ParserFactory.writeParser(ParserFactory.newSimplePrecedenceParser(loadGrammar(commandLine)), output);
+            return "Parser written to " + artifactPath;
+        } catch(IncorrectGrammarException | ParserCreationException | IOException e) {
+            log.error("Can't compile parser: {}", e.getMessage());
+        }
+
+        return "";
+    }
+
+    private PrecedenceParser<Production> loadParser(CommandLine commandLine) throws IOException, IncorrectGrammarException, ParserCreationException {
+        if(commandLine.hasOption(PARSER.getName())) {
+            try (InputStream input = Files.newInputStream(Path.of(commandLine.getOptionValue(PARSER.getName())))) {
+                return ParserFactory.readSimplePrecedenceParser(input);
+            }
+        }
+
+        return ParserFactory.newSimplePrecedenceParser(loadGrammar(commandLine));
+    }
+
     private Grammar loadGrammar(CommandLine commandLine) throws IOException, IncorrectGrammarException {
         String grammarFilePath = commandLine.getOptionValue(GRAMMAR.getName());
         if(!commandLine.hasOption(START.getName())) {
@@ -38,6 +38,8 @@ public enum ToolOption {
     OUTPUT("o", "output", true, String.format("Output mode. Possible values are: %s", getOptionsList())),
     GRAMMAR("g", "grammar", true, "Grammar file"),
     START("s", "start-symbol", true, "Start symbol for provided grammar"),
+    COMPILE("c", "compile", true, "Writes simple precedence parser for provided grammar to the parser artifact file"),
+    PARSER("p", "parser", true, "Parser artifact file used instead of the grammar"),
     HELP("h", "help", false, "Prints this help details");
 
     private static String getOptionsList() {
@@ -31,5 +31,5 @@ import com.avispa.parser.precedence.parser.SyntaxException;
  * @author Rafał Hiszpański
  */
 public interface OutputTransformer<T> {
-    T parse(String input) throws SyntaxException, LexerException;
+    T parse(CharSequence input) throws SyntaxException, LexerException;
 }
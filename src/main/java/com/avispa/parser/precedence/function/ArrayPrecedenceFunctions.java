@@ -0,0 +1,174 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.function;
+
+import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.SymbolTable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Precedence functions stored in arrays indexed by symbol identifiers. Symbols without any precedence relation have
+ * {@link PrecedenceFunctions#NO_RELATION} value.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class ArrayPrecedenceFunctions implements PrecedenceFunctions {
+    private final SymbolTable symbolTable;
+    private final int[] f;
+    private final int[] g;
+
+    /**
+     * Copies values of precedence functions into arrays
+     * @param functions source precedence functions
+     * @param symbolTable symbol table of the grammar for which functions were calculated
+     * @return array-backed precedence functions
+     */
+    public static ArrayPrecedenceFunctions of(PrecedenceFunctions functions, SymbolTable symbolTable) {
+        if(functions instanceof ArrayPrecedenceFunctions) {
+            return (ArrayPrecedenceFunctions) functions;
+        }
+
+        int[] f = new int[symbolTable.size()];
+        int[] g = new int[symbolTable.size()];
+        Arrays.fill(f, NO_RELATION);
+        Arrays.fill(g, NO_RELATION);
+
+        copy(functions.getF(), f, symbolTable);
+        copy(functions.getG(), g, symbolTable);
+
+        return new ArrayPrecedenceFunctions(symbolTable, f, g);
+    }
+
+    private static void copy(Map<Symbol, Integer> source, int[] target, SymbolTable symbolTable) {
+        for(var entry : source.entrySet()) {
+            int id = symbolTable.getId(entry.getKey());
+            if(id != Symbol.UNDEFINED_ID) {
+                target[id] = entry.getValue();
+            }
+        }
+    }
+
+    /**
+     * @param input binary input
+     * @param symbolTable symbol table of the grammar for which functions were calculated
+     * @return functions written by {@link #writeTo(DataOutput)}
+     * @throws IllegalArgumentException when number of values does not match number of grammar symbols
+     */
+    public static ArrayPrecedenceFunctions readFrom(DataInput input, SymbolTable symbolTable) throws IOException {
+        int size = input.readInt();
+        if(size != symbolTable.size()) {
+            throw new IllegalArgumentException("Functions size " + size + " does not match number of grammar symbols " + symbolTable.size());
+        }
+
+        int[] f = new int[size];
+        int[] g = new int[size];
+        for(int id = 0; id < size; id++) {
+            f[id] = input.readInt();
+            g[id] = input.readInt();
+        }
+
+        return new ArrayPrecedenceFunctions(symbolTable, f, g);
+    }
+
+    ArrayPrecedenceFunctions(SymbolTable symbolTable, int[] f, int[] g) {
+        this.symbolTable = symbolTable;
+        this.f = f;
+        this.g = g;
+    }
+
+    /**
+     * Get value of f function for symbol with provided identifier. Lexemes share identifiers with their terminals.
+     * @param id symbol identifier
+     * @return value of the function or {@link PrecedenceFunctions#NO_RELATION}
+     */
+    public int getFFor(int id) {
+        return f[id];
+    }
+
+    /**
+     * Get value of g function for symbol with provided identifier. Lexemes share identifiers with their terminals.
+     * @param id symbol identifier
+     * @return value of the function or {@link PrecedenceFunctions#NO_RELATION}
+     */
+    public int getGFor(int id) {
+        return g[id];
+    }
+
+    /**
+     * Writes values of both functions in the form read by {@link #readFrom(DataInput, SymbolTable)}
+     * @param output binary output
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeInt(f.length);
+        for(int id = 0; id < f.length; id++) {
+            output.writeInt(f[id]);
+            output.writeInt(g[id]);
+        }
+    }
+
+    @Override
+    public int getFFor(Symbol symbol) {
+        int id = symbolTable.getId(symbol);
+        return id == Symbol.UNDEFINED_ID ? NO_RELATION : f[id];
+    }
+
+    @Override
+    public int getGFor(Symbol symbol) {
+        int id = symbolTable.getId(symbol);
+        return id == Symbol.UNDEFINED_ID ? NO_RELATION : g[id];
+    }
+
+    @Override
+    public Map<Symbol, Integer> getF() {
+        return toMap(f);
+    }
+
+    @Override
+    public Map<Symbol, Integer> getG() {
+        return toMap(g);
+    }
+
+    private Map<Symbol, Integer> toMap(int[] values) {
+        Map<Symbol, Integer> result = new LinkedHashMap<>();
+        for(int id = 0; id < values.length; id++) {
+            if(values[id] != NO_RELATION) {
+                result.put(symbolTable.get(id), values[id]);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    @Override
+    public String toString() {
+        return "f()=" + getF() + ", g()=" + getG();
+    }
+}
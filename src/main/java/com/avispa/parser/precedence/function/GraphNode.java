@@ -26,7 +26,6 @@ package com.avispa.parser.precedence.function;
 
 import com.avispa.parser.precedence.grammar.Symbol;
 import lombok.AccessLevel;
-import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.util.Collections;
@@ -36,9 +35,10 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
+ * Node of the precedence functions graph. Nodes are compared by identity as their symbol sets change while fusing.
+ *
  * @author Rafał Hiszpański
  */
-@EqualsAndHashCode
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 class GraphNode {
     private final Set<Symbol> fSymbols = new HashSet<>();
@@ -62,14 +62,6 @@ class GraphNode {
         return this;
     }
 
-    public boolean containsF(Symbol symbol) {
-        return this.fSymbols.contains(symbol);
-    }
-
-    public boolean containsG(Symbol symbol) {
-        return this.gSymbols.contains(symbol);
-    }
-
     public Set<Symbol> getFSet() {
         return Collections.unmodifiableSet(fSymbols);
     }
@@ -32,8 +32,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.DirectedAcyclicGraph;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,10 +51,12 @@ public final class GraphPrecedenceFunctions implements PrecedenceFunctions {
     private final Map<Symbol, Integer> g = new HashMap<>();
 
     public GraphPrecedenceFunctions(PrecedenceTable table) throws PrecedenceFunctionsException {
-        var graph = createGraph(table);
+        var nodes = generateNodes(table);
+        var graph = createGraph(table, nodes);
 
+        Map<GraphNode, Integer> longestPaths = getLongestPaths(graph);
         for (var node : graph.vertexSet()) { // for each node
-            Integer longestPath = getLongestPathFor(node, graph);
+            Integer longestPath = longestPaths.get(node);
 
             node.getFSet().forEach(symbol -> f.put(symbol, longestPath));
             node.getGSet().forEach(symbol -> g.put(symbol, longestPath));
@@ -67,28 +72,36 @@ public final class GraphPrecedenceFunctions implements PrecedenceFunctions {
     /**
      * Creates graph from the precedence table according to the rules of its creation.
      * @param table precedence table
+     * @param nodes nodes generated from the precedence table
      * @return
      * @throws PrecedenceFunctionsException
      */
-    private DirectedAcyclicGraph<GraphNode, DefaultEdge> createGraph(PrecedenceTable table) throws PrecedenceFunctionsException {
+    private DirectedAcyclicGraph<GraphNode, DefaultEdge> createGraph(PrecedenceTable table, Set<GraphNode> nodes) throws PrecedenceFunctionsException {
         DirectedAcyclicGraph<GraphNode, DefaultEdge> graph = new DirectedAcyclicGraph<>(DefaultEdge.class);
 
-        var nodes = generateNodes(table);
-
-        // add vertices
-        nodes.forEach(graph::addVertex);
+        // index nodes by their symbols, so each table entry finds its nodes in constant time
+        Map<Symbol, GraphNode> fNodes = new HashMap<>();
+        Map<Symbol, GraphNode> gNodes = new HashMap<>();
+        for(GraphNode node : nodes) {
+            graph.addVertex(node);
+            node.getFSet().forEach(symbol -> fNodes.put(symbol, node));
+            node.getGSet().forEach(symbol -> gNodes.put(symbol, node));
+        }
 
         // add edges
         try {
             table.get().forEach((key, value) -> {
-                var leftNode = nodes.stream().filter(node -> node.containsF(key.getLeft())).findFirst().orElseThrow();
-                var rightNode = nodes.stream().filter(node -> node.containsG(key.getRight())).findFirst().orElseThrow();
-
                 log.debug("Processing {} pair with {} precedence", key, value);
                 if (Precedence.LESS_THAN.equals(value)) {
+                    var leftNode = fNodes.get(key.getLeft());
+                    var rightNode = gNodes.get(key.getRight());
+
                     log.debug("Adding edge from {} to {}", rightNode, leftNode);
                     graph.addEdge(rightNode, leftNode);
                 } else if (Precedence.GREATER_THAN.equals(value)) {
+                    var leftNode = fNodes.get(key.getLeft());
+                    var rightNode = gNodes.get(key.getRight());
+
                     log.debug("Adding edge from {} to {}", leftNode, rightNode);
                     graph.addEdge(leftNode, rightNode);
                 }
@@ -110,29 +123,46 @@ public final class GraphPrecedenceFunctions implements PrecedenceFunctions {
 
     /**
      * Generates set of nodes. If the precedence for two symbols is set to equals, symbols are merged into single node.
+     *
+     * Each f(X) and g(Y) symbol gets a dense index (f symbols first). Symbols are fused with union-find, so
+     * transitive merges (e.g. f(a) ≐ g(b), f(c) ≐ g(b), f(c) ≐ g(d)) end up in a single node.
      * @param table precedence table
      * @return
      */
     private Set<GraphNode> generateNodes(PrecedenceTable table) {
-        Set<GraphNode> nodes = new HashSet<>();
+        Map<Symbol, Integer> fIndices = new LinkedHashMap<>();
+        Map<Symbol, Integer> gIndices = new LinkedHashMap<>();
+
+        for(var pair : table.get().keySet()) {
+            fIndices.putIfAbsent(pair.getLeft(), fIndices.size());
+            gIndices.putIfAbsent(pair.getRight(), gIndices.size());
+        }
+
+        final int fCount = fIndices.size();
+        UnionFind unionFind = new UnionFind(fCount + gIndices.size());
 
         for(var entry : table.get().entrySet()) {
-            var left = entry.getKey().getLeft();
-            var right = entry.getKey().getRight();
             if(Precedence.EQUALS == entry.getValue()) { // fuse symbols if precedence is set to equal
-                fuseSymbols(left, right, nodes);
-            } else {
-                if(nodes.stream().noneMatch(node -> node.containsF(left))) {
-                    nodes.add(GraphNode.ofF(left));
-                }
-
-                if(nodes.stream().noneMatch(node -> node.containsG(right))) {
-                    nodes.add(GraphNode.ofG(right));
-                }
+                unionFind.union(fIndices.get(entry.getKey().getLeft()), fCount + gIndices.get(entry.getKey().getRight()));
             }
         }
 
-        nodes = new HashSet<>(nodes);
+        GraphNode[] nodesByRoot = new GraphNode[fCount + gIndices.size()];
+        fIndices.forEach((symbol, index) -> {
+            int root = unionFind.find(index);
+            nodesByRoot[root] = null == nodesByRoot[root] ? GraphNode.ofF(symbol) : nodesByRoot[root].addF(symbol);
+        });
+        gIndices.forEach((symbol, index) -> {
+            int root = unionFind.find(fCount + index);
+            nodesByRoot[root] = null == nodesByRoot[root] ? GraphNode.ofG(symbol) : nodesByRoot[root].addG(symbol);
+        });
+
+        Set<GraphNode> nodes = new LinkedHashSet<>();
+        for(GraphNode node : nodesByRoot) {
+            if(null != node) {
+                nodes.add(node);
+            }
+        }
 
         log.debug("Generated nodes: {}", nodes);
 
@@ -140,88 +170,45 @@ public final class GraphPrecedenceFunctions implements PrecedenceFunctions {
     }
 
     /**
-     * If left or right symbol is present in any of existing nodes, append second one to it. If nothing was fused,
-     * create new node.
-     * @param left
-     * @param right
-     * @param nodes
-     */
-    private void fuseSymbols(Symbol left, Symbol right, Set<GraphNode> nodes) {
-        boolean fused = false;
-        for (GraphNode node : nodes) {
-            if (node.containsF(left)) {
-                node.addG(right);
-                fused = true;
-            } else if (node.containsG(right)) {
-                node.addF(left);
-                fused = true;
-            }
-        }
-
-        if(!fused) {
-            nodes.add(GraphNode.ofF(left).addG(right));
-        }
-    }
-
-    /**
-     * Finds the longest path for specific node. In fact the algorithm finds the longest paths to all nodes, but it is
-     * later reduced to max value.
+     * Finds the longest path starting in each node. Nodes are visited in reverse topological order, so when a node is
+     * visited, the longest paths of all its successors are already known. The longest path from the node is then
+     * the longest path of its successors increased by one or zero if node has no successors.
      *
-     * Algorithm uses topological order provided by JGraphT library when building the graph. It iterates all nodes in that
-     * order, finds all adjacent nodes (edges direction matter) and compares each node with adjacent node distances.
-     * @param from we'll get the longest path from this node
      * @param graph graph where the search will be performed
-     * @return
-     * @throws PrecedenceFunctionsException
+     * @return longest path for each node
      */
-    private Integer getLongestPathFor(GraphNode from, DirectedAcyclicGraph<GraphNode, DefaultEdge> graph) throws PrecedenceFunctionsException {
-        Map<GraphNode, Integer> distances = new HashMap<>();
-        distances.put(from, 0); // distance to self is always zero
-
-        for (var currentNode : graph) { // nodes are in topological order
-            if (distances.containsKey(currentNode)) {
-                var edges = graph.outgoingEdgesOf(currentNode);
-                for (DefaultEdge edge : edges) { // for each adjacent node
-                    GraphNode adjacent = graph.getEdgeTarget(edge);
-
-                    if (!distances.containsKey(adjacent) || distances.get(adjacent) < distances.get(currentNode) + 1) {
-                        distances.put(adjacent, distances.get(currentNode) + 1);
-                    }
-                }
+    private Map<GraphNode, Integer> getLongestPaths(DirectedAcyclicGraph<GraphNode, DefaultEdge> graph) {
+        List<GraphNode> topologicalOrder = new ArrayList<>(graph.vertexSet().size());
+        graph.iterator().forEachRemaining(topologicalOrder::add);
+
+        Map<GraphNode, Integer> longestPaths = new HashMap<>();
+        for(int i = topologicalOrder.size() - 1; i >= 0; i--) {
+            GraphNode node = topologicalOrder.get(i);
+
+            int longestPath = 0;
+            for (DefaultEdge edge : graph.outgoingEdgesOf(node)) { // for each adjacent node
+                longestPath = Math.max(longestPath, longestPaths.get(graph.getEdgeTarget(edge)) + 1);
             }
+            longestPaths.put(node, longestPath);
         }
 
-        log.debug("Found following distances from {} node: {}", from, distances);
-
-        return findLongestPath(distances);
-    }
+        log.debug("Found following longest paths: {}", longestPaths);
 
-    /**
-     * Finds the longest path out of all longest paths for specific node
-     * @param distances map of distances from each node
-     * @return
-     * @throws PrecedenceFunctionsException
-     */
-    private Integer findLongestPath(Map<GraphNode, Integer> distances) throws PrecedenceFunctionsException {
-        return distances.entrySet()
-                .stream()
-                .max(Map.Entry.comparingByValue())
-                .orElseThrow(() -> new PrecedenceFunctionsException("Longest path can't be found"))
-                .getValue();
+        return longestPaths;
     }
 
     @Override
     public int getFFor(Symbol symbol) {
-        return f.get(symbol);
+        return f.getOrDefault(symbol.unwrap(), NO_RELATION);
     }
 
     @Override
     public int getGFor(Symbol symbol) {
-        return g.get(symbol);
+        return g.getOrDefault(symbol.unwrap(), NO_RELATION);
     }
 
     @Override
     public String toString() {
-        return "f()=" + f + ", g()={}" + g;
+        return "f()=" + f + ", g()=" + g;
     }
 }
@@ -41,9 +41,23 @@ import java.util.Map;
  * @author Rafał Hiszpański
  */
 public interface PrecedenceFunctions {
+    /**
+     * Value returned for symbols, which are not in any precedence relation
+     */
+    int NO_RELATION = -1;
+
     Map<Symbol, Integer> getF();
     Map<Symbol, Integer> getG();
 
+    /**
+     * @param symbol symbol or lexeme
+     * @return value of f function or {@link #NO_RELATION}
+     */
     int getFFor(Symbol symbol);
+
+    /**
+     * @param symbol symbol or lexeme
+     * @return value of g function or {@link #NO_RELATION}
+     */
     int getGFor(Symbol symbol);
 }
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.function;
+
+/**
+ * Disjoint-set forest over elements 0..n-1 with path compression and union by rank.
+ *
+ * @author Rafał Hiszpański
+ */
+final class UnionFind {
+    private final int[] parent;
+    private final byte[] rank;
+
+    UnionFind(int size) {
+        this.parent = new int[size];
+        this.rank = new byte[size];
+
+        for(int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+    }
+
+    /**
+     * Finds representative of the set containing the element. All elements on the path are linked directly to
+     * the representative.
+     * @param element element
+     * @return representative element
+     */
+    int find(int element) {
+        int root = element;
+        while(parent[root] != root) {
+            root = parent[root];
+        }
+
+        while(parent[element] != root) {
+            int next = parent[element];
+            parent[element] = root;
+            element = next;
+        }
+
+        return root;
+    }
+
+    /**
+     * Merges sets containing both elements. Tree with the lower rank is attached to the one with the higher rank.
+     * @param a first element
+     * @param b second element
+     * @return true if sets were merged, false if elements were already in the same set
+     */
+    boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+
+        if(rootA == rootB) {
+            return false;
+        }
+
+        if(rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+        } else if(rank[rootA] > rank[rootB]) {
+            parent[rootB] = rootA;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+        }
+
+        return true;
+    }
+}
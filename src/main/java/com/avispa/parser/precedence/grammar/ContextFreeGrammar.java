@@ -24,19 +24,27 @@
 
 package com.avispa.parser.precedence.grammar;
 
+import com.avispa.parser.precedence.lexer.automaton.LexerAutomaton;
+import com.avispa.parser.precedence.lexer.automaton.UnsupportedRegexException;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * @author Rafał Hiszpański
  */
+@Slf4j
 @Getter
 public class ContextFreeGrammar implements Grammar {
     private final String name;
@@ -46,10 +54,25 @@ public class ContextFreeGrammar implements Grammar {
     protected final List<Production> productions;
     protected NonTerminal start;
 
+    private final SymbolTable symbolTable;
+
+    @Getter(AccessLevel.NONE)
+    private final LexerAutomaton lexerAutomaton;
+
     public static ContextFreeGrammar from(String name, Set<Terminal> terminals, List<Production> productions, NonTerminal start) throws IncorrectGrammarException {
         return new ContextFreeGrammar(name, terminals, productions, start);
     }
 
+    /**
+     * Creates grammar using already compiled lexer automaton instead of compiling terminals again
+     * @param lexerAutomaton automaton compiled for the terminals in the same order or null if lexer has to use
+     *                       regular expressions
+     */
+    public static ContextFreeGrammar from(String name, Set<Terminal> terminals, List<Production> productions, NonTerminal start, LexerAutomaton lexerAutomaton) throws IncorrectGrammarException {
+        return new ContextFreeGrammar(name, terminals, productions, start,
+                internedTerminals -> null != lexerAutomaton ? lexerAutomaton.withTerminals(internedTerminals) : null);
+    }
+
     public static ContextFreeGrammar from(GrammarFile grammarFile, NonTerminal start) throws IncorrectGrammarException {
         return new ContextFreeGrammar(grammarFile, start);
     }
@@ -69,27 +92,62 @@ public class ContextFreeGrammar implements Grammar {
     }
 
     private ContextFreeGrammar(String name, Set<Terminal> terminals, List<Production> productions, NonTerminal start) throws IncorrectGrammarException {
+        this(name, terminals, productions, start, ContextFreeGrammar::compileLexerAutomaton);
+    }
+
+    private ContextFreeGrammar(String name, Set<Terminal> terminals, List<Production> productions, NonTerminal start,
+                               Function<List<Terminal>, LexerAutomaton> lexerAutomatonFactory) throws IncorrectGrammarException {
         this.name = name;
 
-        this.terminals = new HashSet<>(terminals);
-        this.productions = new ArrayList<>(productions);
+        Set<Terminal> declaredTerminals = new LinkedHashSet<>(terminals); // order of terminals defines their priority in lexer
 
-        verifyTerminalsMatch(productions);
+        verifyTerminalsMatch(declaredTerminals, productions);
 
-        this.nonTerminals = buildNonTerminalsList(productions);
-        this.start = getStartSymbol(start);
+        Set<NonTerminal> declaredNonTerminals = buildNonTerminalsList(productions);
+        verifyStartSymbol(declaredNonTerminals, start);
 
-        if(this.terminals.isEmpty() || this.productions.isEmpty()) {
+        if(declaredTerminals.isEmpty() || productions.isEmpty()) {
             throw new IncorrectGrammarException("Terminals and productions must be a non-empty collections");
         }
+
+        // replace all symbols with their interned instances carrying dense identifiers
+        this.symbolTable = SymbolTable.of(declaredTerminals, declaredNonTerminals);
+        this.terminals = declaredTerminals.stream()
+                .map(symbolTable::intern)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        this.nonTerminals = declaredNonTerminals.stream()
+                .map(symbolTable::intern)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        this.productions = productions.stream()
+                .map(symbolTable::intern)
+                .collect(Collectors.toCollection(ArrayList::new));
+        this.start = symbolTable.intern(start);
+
+        this.lexerAutomaton = lexerAutomatonFactory.apply(new ArrayList<>(this.terminals));
+    }
+
+    /**
+     * Compiles all terminals into single automaton used by the lexer. If it is not possible, lexer will fall back to
+     * matching terminals regular expressions one by one.
+     * @param terminals interned terminals of the grammar
+     * @return compiled automaton or null
+     */
+    private static LexerAutomaton compileLexerAutomaton(List<Terminal> terminals) {
+        try {
+            return LexerAutomaton.compile(terminals);
+        } catch (UnsupportedRegexException e) {
+            log.info("Lexer automaton can't be compiled, regular expressions will be used instead. Reason: {}", e.getMessage());
+            return null;
+        }
     }
 
     /**
      * Verifies if terminals defined in productions matches list of terminals
+     * @param terminals
      * @param productions
      * @throws IncorrectGrammarException
      */
-    private void verifyTerminalsMatch(List<Production> productions) throws IncorrectGrammarException {
+    private void verifyTerminalsMatch(Set<Terminal> terminals, List<Production> productions) throws IncorrectGrammarException {
         Set<Terminal> productionTerminals = productions.stream()
                 .map(Production::getRhs)
                 .flatMap(Collection::stream)
@@ -97,8 +155,8 @@ public class ContextFreeGrammar implements Grammar {
                 .map(Terminal.class::cast)
                 .collect(Collectors.toSet());
 
-        if(!this.terminals.containsAll(productionTerminals)) {
-            throw new IncorrectGrammarException("There are undefined terminals found in productions. Terminals: " + this.terminals + ", found: " + productionTerminals);
+        if(!terminals.containsAll(productionTerminals)) {
+            throw new IncorrectGrammarException("There are undefined terminals found in productions. Terminals: " + terminals + ", found: " + productionTerminals);
         }
     }
 
@@ -113,7 +171,7 @@ public class ContextFreeGrammar implements Grammar {
         Set<NonTerminal> lhsNonTerminals = productions.
                 stream().
                 map(Production::getLhs).
-                collect(Collectors.toSet());
+                collect(Collectors.toCollection(LinkedHashSet::new));
 
         Set<NonTerminal> rhsNonTerminals = new HashSet<>();
         for(Production production : productions) {
@@ -133,14 +191,12 @@ public class ContextFreeGrammar implements Grammar {
     }
 
     /**
-     * Checks if symbol is present on the non-terminals list and sets it as start symbol
+     * Checks if start symbol is present on the non-terminals list
+     * @param nonTerminals
      * @param start
-     * @return
      */
-    private NonTerminal getStartSymbol(NonTerminal start) throws IncorrectGrammarException {
-        if(this.nonTerminals.contains(start)) {
-            return start;
-        } else {
+    private void verifyStartSymbol(Set<NonTerminal> nonTerminals, NonTerminal start) throws IncorrectGrammarException {
+        if(!nonTerminals.contains(start)) {
             throw new IncorrectGrammarException("Start symbol is not defined on the non-terminals list");
         }
     }
@@ -153,6 +209,10 @@ public class ContextFreeGrammar implements Grammar {
         return Collections.unmodifiableSet(this.nonTerminals);
     }
 
+    public Optional<LexerAutomaton> getLexerAutomaton() {
+        return Optional.ofNullable(this.lexerAutomaton);
+    }
+
     public List<Production> getProductions() {
         return Collections.unmodifiableList(this.productions);
     }
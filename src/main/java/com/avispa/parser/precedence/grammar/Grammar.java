@@ -24,7 +24,10 @@
 
 package com.avispa.parser.precedence.grammar;
 
+import com.avispa.parser.precedence.lexer.automaton.LexerAutomaton;
+
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -40,4 +43,16 @@ public interface Grammar {
     List<Production> getProductions();
     Production getProduction(int index);
     NonTerminal getStart();
+
+    /**
+     * Dense identifiers of all grammar symbols. All symbols returned by the grammar are interned in this table.
+     * @return symbol table
+     */
+    SymbolTable getSymbolTable();
+
+    /**
+     * Automaton recognizing all terminals of the grammar
+     * @return compiled automaton or empty optional if any of the terminals can't be compiled
+     */
+    Optional<LexerAutomaton> getLexerAutomaton();
 }
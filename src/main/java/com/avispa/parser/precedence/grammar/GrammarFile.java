@@ -33,8 +33,8 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -74,7 +74,7 @@ public class GrammarFile {
      */
     private final Pattern parserLinePattern = Pattern.compile("^[a-z]\\w+: *(?:[A-Z]\\w+|[a-z]\\w+) *(?: +(?:[A-Z]\\w+|[a-z]\\w+) *){0,9}(?:\\| *(?:[A-Z]\\w+|[a-z]\\w+) *(?: +(?:[A-Z]\\w+|[a-z]\\w+) *){0,9}){0,9};$");
 
-    private final Map<String, Terminal> terminals = new HashMap<>();
+    private final Map<String, Terminal> terminals = new LinkedHashMap<>(); // keeps the order of definition
     @Getter(AccessLevel.MODULE)
     private final List<Production> productions = new ArrayList<>();
     @Getter(AccessLevel.MODULE)
@@ -191,6 +191,6 @@ public class GrammarFile {
     }
 
     Set<Terminal> getTerminals() {
-        return new HashSet<>(terminals.values());
+        return new LinkedHashSet<>(terminals.values());
     }
 }
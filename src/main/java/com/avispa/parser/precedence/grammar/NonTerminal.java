@@ -44,4 +44,18 @@ public final class NonTerminal extends Symbol {
     private NonTerminal(String name) {
         super(name);
     }
+
+    private NonTerminal(NonTerminal nonTerminal, int id, SymbolTable symbolTable) {
+        super(nonTerminal, id, symbolTable);
+    }
+
+    /**
+     * Creates copy of the non-terminal interned by the symbol table
+     * @param id identifier
+     * @param symbolTable interning table
+     * @return new non-terminal
+     */
+    NonTerminal intern(int id, SymbolTable symbolTable) {
+        return new NonTerminal(this, id, symbolTable);
+    }
 }
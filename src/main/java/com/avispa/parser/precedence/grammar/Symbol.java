@@ -25,23 +25,55 @@
 package com.avispa.parser.precedence.grammar;
 
 import com.avispa.parser.precedence.lexer.Lexeme;
-import lombok.EqualsAndHashCode;
 
 /**
+ * Symbols are equal when they have the same name. Symbols interned by the same grammar are compared by their
+ * identifiers only.
+ *
  * @author Rafał Hiszpański
  */
-@EqualsAndHashCode
 public abstract class Symbol {
-    protected String name;
+    public static final int UNDEFINED_ID = -1;
+
+    protected final String name;
+    protected final int id;
+    private final SymbolTable symbolTable; // table which interned the symbol
 
     protected Symbol(String name) {
         this.name = name;
+        this.id = UNDEFINED_ID;
+        this.symbolTable = null;
+    }
+
+    /**
+     * Creates symbol sharing name and identity of provided symbol
+     * @param symbol source symbol
+     */
+    protected Symbol(Symbol symbol) {
+        this.name = symbol.name;
+        this.id = symbol.id;
+        this.symbolTable = symbol.symbolTable;
+    }
+
+    Symbol(Symbol symbol, int id, SymbolTable symbolTable) {
+        this.name = symbol.name;
+        this.id = id;
+        this.symbolTable = symbolTable;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Dense identifier assigned to the symbol when it is interned by the grammar. Symbols created outside of the grammar
+     * have {@link #UNDEFINED_ID}.
+     * @return symbol identifier
+     */
+    public int getId() {
+        return id;
+    }
+
     /**
      * If symbol is a lexeme, unwrap it to get actual terminal symbol
      * @return
@@ -53,6 +85,36 @@ public abstract class Symbol {
         return this;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(!(o instanceof Symbol)) {
+            return false;
+        }
+
+        Symbol other = (Symbol) o;
+        if(!other.canEqual(this)) {
+            return false;
+        }
+
+        if(null != symbolTable && symbolTable == other.symbolTable) {
+            return id == other.id;
+        }
+
+        return name.equals(other.name);
+    }
+
+    protected boolean canEqual(Object other) {
+        return other instanceof Symbol;
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
     @Override
     public String toString() {
         return name;
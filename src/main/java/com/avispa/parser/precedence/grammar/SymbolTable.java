@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.grammar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense identifiers to grammar symbols. Terminals get identifiers from 0 to T-1 in order of their declaration,
+ * non-terminals are numbered from T onwards. Identifiers are used to index compact arrays (e.g. precedence matrix)
+ * instead of hashing the symbols.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class SymbolTable {
+    private final Symbol[] symbols;
+    private final int terminalCount;
+    private final Map<Symbol, Integer> ids;
+
+    public static SymbolTable of(Collection<Terminal> terminals, Collection<NonTerminal> nonTerminals) {
+        return new SymbolTable(terminals, nonTerminals);
+    }
+
+    private SymbolTable(Collection<Terminal> terminals, Collection<NonTerminal> nonTerminals) {
+        this.symbols = new Symbol[terminals.size() + nonTerminals.size()];
+        this.terminalCount = terminals.size();
+        this.ids = new HashMap<>();
+
+        int id = 0;
+        for(Terminal terminal : terminals) {
+            register(terminal.intern(id++, this));
+        }
+        for(NonTerminal nonTerminal : nonTerminals) {
+            register(nonTerminal.intern(id++, this));
+        }
+    }
+
+    private void register(Symbol symbol) {
+        symbols[symbol.getId()] = symbol;
+        ids.put(symbol, symbol.getId());
+    }
+
+    /**
+     * @return number of symbols in the table
+     */
+    public int size() {
+        return symbols.length;
+    }
+
+    public int getTerminalCount() {
+        return terminalCount;
+    }
+
+    public boolean isTerminal(int id) {
+        return id < terminalCount;
+    }
+
+    /**
+     * Get symbol by its identifier
+     * @param id identifier
+     * @return symbol bound to the identifier
+     */
+    public Symbol get(int id) {
+        return symbols[id];
+    }
+
+    /**
+     * Get identifier of the symbol. Lexemes are resolved to identifiers of their terminals.
+     * @param symbol symbol
+     * @return identifier or {@link Symbol#UNDEFINED_ID} when symbol is not present in the table
+     */
+    public int getId(Symbol symbol) {
+        symbol = symbol.unwrap();
+
+        int id = symbol.getId();
+        if(id >= 0 && id < symbols.length && symbols[id] == symbol) {
+            return id;
+        }
+
+        return ids.getOrDefault(symbol, Symbol.UNDEFINED_ID);
+    }
+
+    /**
+     * Get interned instance of the symbol
+     * @param symbol symbol
+     * @return symbol with assigned identifier
+     * @throws IllegalArgumentException when symbol is not present in the table
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Symbol> T intern(T symbol) {
+        int id = getId(symbol);
+        if(id == Symbol.UNDEFINED_ID) {
+            throw new IllegalArgumentException("Symbol " + symbol + " is not defined in the grammar");
+        }
+
+        return (T) symbols[id];
+    }
+
+    /**
+     * Rebuilds production using interned symbols
+     * @param production production
+     * @return production with symbols having assigned identifiers
+     */
+    public Production intern(Production production) {
+        List<Symbol> rhs = new ArrayList<>(production.getRhs().size());
+        for(Symbol symbol : production.getRhs()) {
+            rhs.add(intern(symbol));
+        }
+
+        return Production.of(intern(production.getLhs()), rhs);
+    }
+
+    public List<Symbol> getSymbols() {
+        return List.of(symbols);
+    }
+}
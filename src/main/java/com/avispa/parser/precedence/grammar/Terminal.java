@@ -39,6 +39,8 @@ import java.util.regex.PatternSyntaxException;
 public class Terminal extends Symbol {
     public static final Terminal BOUNDARY_MARKER = Terminal.of("MARKER", "\\$");
 
+    @EqualsAndHashCode.Exclude
+    private final String regex;
     @EqualsAndHashCode.Exclude
     private final Pattern pattern;
 
@@ -50,10 +52,17 @@ public class Terminal extends Symbol {
         return symbol instanceof Terminal;
     }
 
+    private Terminal(Terminal terminal, int id, SymbolTable symbolTable) {
+        super(terminal, id, symbolTable);
+        this.regex = terminal.regex;
+        this.pattern = terminal.pattern;
+    }
+
     private Terminal(String name, String regex) {
         super(name);
+        this.regex = regex;
         try {
-            this.pattern = Pattern.compile("^" + regex);
+            this.pattern = Pattern.compile(regex);
         } catch (PatternSyntaxException e) {
             String message = String.format("Provided pattern is not a valid regular expression: %s", e.getMessage());
             log.error("Original exception: ", e);
@@ -61,8 +70,52 @@ public class Terminal extends Symbol {
         }
     }
 
-    public int lastMatchedIndex(String value) {
-        Matcher matcher = pattern.matcher(value);
-        return matcher.find() ?  matcher.end() : 0;
+    /**
+     * Creates copy of the terminal interned by the symbol table
+     * @param id identifier
+     * @param symbolTable interning table
+     * @return new terminal
+     */
+    Terminal intern(int id, SymbolTable symbolTable) {
+        return new Terminal(this, id, symbolTable);
+    }
+
+    /**
+     * Source regular expression used to recognize the terminal
+     * @return regular expression
+     */
+    public String getRegex() {
+        return regex;
+    }
+
+    /**
+     * Creates new matcher of the terminal regular expression for provided input
+     * @param input input
+     * @return new matcher
+     */
+    public Matcher matcher(CharSequence input) {
+        return pattern.matcher(input);
+    }
+
+    /**
+     * Matches the terminal at provided position of the input
+     * @param value input
+     * @param from position where the match has to start
+     * @return index after the last matched character or <code>from</code> when there is no match
+     */
+    public int lastMatchedIndex(CharSequence value, int from) {
+        return lastMatchedIndex(pattern.matcher(value), from);
+    }
+
+    /**
+     * Matches the terminal at provided position using existing matcher. Matcher can be reused between calls to avoid
+     * allocations.
+     * @param matcher matcher created by {@link #matcher(CharSequence)}
+     * @param from position where the match has to start
+     * @return index after the last matched character or <code>from</code> when there is no match
+     */
+    public static int lastMatchedIndex(Matcher matcher, int from) {
+        matcher.region(from, matcher.regionEnd());
+        return matcher.lookingAt() ? matcher.end() : from;
     }
 }
@@ -39,24 +39,46 @@ public final class Lexeme extends Symbol {
     private final int index;
     private final Terminal terminal;
 
+    /**
+     * Position of the first character of the lexeme in the input. It is a long, because input read from a stream can be
+     * longer than {@link Integer#MAX_VALUE} characters. Two lexemes are equal regardless of their offsets.
+     */
+    @EqualsAndHashCode.Exclude
+    private final long offset;
+
     public static Lexeme of(String value, Terminal terminal, int index) {
+        return of(value, terminal, index, 0);
+    }
+
+    public static Lexeme of(String value, Terminal terminal, int index, long offset) {
         if(index < 1) {
             throw new IllegalArgumentException("Index must be greater than 0");
         }
-        return new Lexeme(value, terminal, index);
+        if(offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        return new Lexeme(value, terminal, index, offset);
     }
 
-    private Lexeme(String value, Terminal terminal, int index) {
-        super(terminal.getName());
+    private Lexeme(String value, Terminal terminal, int index, long offset) {
+        super(terminal);
         this.index = index;
         this.value = value;
         this.terminal = terminal;
+        this.offset = offset;
     }
 
     public int getValueLength() {
         return value.length();
     }
 
+    /**
+     * @return position right after the last character of the lexeme in the input
+     */
+    public long getEndOffset() {
+        return offset + value.length();
+    }
+
     @Override
     public String toString() {
         return super.toString() + "_" + index + ":" + value;
@@ -26,29 +26,191 @@ package com.avispa.parser.precedence.lexer;
 
 import com.avispa.parser.lexer.LexerException;
 import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.SymbolTable;
 import com.avispa.parser.precedence.grammar.Terminal;
+import com.avispa.parser.precedence.lexer.automaton.LexerAutomaton;
+import com.avispa.parser.trace.Tracing;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
 
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.regex.Matcher;
 
 /**
+ * Lexer uses automaton compiled from all grammar terminals when it is available. Otherwise, regular expressions of
+ * all terminals are matched one by one.
+ *
+ * Input is never copied. Lexer keeps the position of the next character to scan and matches terminals directly
+ * against the input character sequence.
+ *
+ * Lexer can also work on input arriving in chunks (see {@link #Lexer(Grammar, boolean)}). Chunks are appended to
+ * the internal buffer and lexemes are returned only when more input can't change them. Characters of returned lexemes
+ * are dropped from the buffer when the next chunk arrives.
+ *
  * @author Rafał Hiszpański
  */
 @Slf4j
 public class Lexer {
-    private String input;
-    private final Set<Terminal> terminals;
+    private static final String BOUNDARY_MARKER_VALUE = "$";
+    private static final int EXCEPTION_VICINITY_LENGTH = 21;
+
+    /**
+     * Default limit of the lexeme length for input provided in chunks
+     */
+    public static final int DEFAULT_MAX_LEXEME_LENGTH = 65536;
+
+    private final CharSequence input;
+    private final StringBuilder buffer; // same as input when input arrives in chunks, otherwise null
+    private int position;
+    private long offset; // offset of the first input character still available in the buffer, streamed input may exceed int range
+    private boolean endOfInput;
+    private final int maxLexemeLength;
+
+    private final Terminal[] terminals;
+    private final Matcher[] matchers;
+    private final LexerAutomaton automaton;
+    private final Terminal boundaryMarker;
+
+    private boolean startMarkerPending;
+    private boolean endMarkerPending;
 
     private final Map<Terminal, Integer> occurrenceCounterMap = new HashMap<>();
     private Lexeme lastLexeme = null;
 
-    public Lexer(String input, Grammar grammar) {
-        this.input = input;
-        this.terminals = grammar.getTerminals();
+    public Lexer(CharSequence input, Grammar grammar) {
+        this(input, grammar, false);
+    }
+
+    /**
+     * @param input input to split into lexemes
+     * @param grammar grammar providing terminals
+     * @param withBoundaryMarkers true if boundary marker lexemes should be returned before the first and after the last
+     *                            lexeme of the input. Markers are virtual, so they are not a part of the input.
+     */
+    public Lexer(CharSequence input, Grammar grammar, boolean withBoundaryMarkers) {
+        this(input, null, grammar, withBoundaryMarkers, Integer.MAX_VALUE);
+        this.endOfInput = true;
+    }
+
+    /**
+     * Creates lexer for input provided in chunks using {@link #feed(CharSequence)}. The end of input has to be
+     * signalled with {@link #finish()}.
+     * @param grammar grammar providing terminals
+     * @param withBoundaryMarkers true if boundary marker lexemes should be returned before the first and after the last
+     *                            lexeme of the input
+     */
+    public Lexer(Grammar grammar, boolean withBoundaryMarkers) {
+        this(grammar, withBoundaryMarkers, DEFAULT_MAX_LEXEME_LENGTH);
+    }
+
+    /**
+     * Creates lexer for input provided in chunks. Only the unfinished lexeme is kept between chunks, so the buffer
+     * never exceeds the chunk size plus the maximum lexeme length.
+     * @param grammar grammar providing terminals
+     * @param withBoundaryMarkers true if boundary marker lexemes should be returned before the first and after the last
+     *                            lexeme of the input
+     * @param maxLexemeLength maximum length of the lexeme, longer lexemes are reported as an error
+     */
+    public Lexer(Grammar grammar, boolean withBoundaryMarkers, int maxLexemeLength) {
+        this(null, new StringBuilder(), grammar, withBoundaryMarkers, maxLexemeLength);
+    }
+
+    /**
+     * Creates lexer for input provided in chunks, which is a continuation of the input already consumed elsewhere
+     * @param startOffset position of the first character of the first chunk in the whole input
+     */
+    Lexer(Grammar grammar, boolean withBoundaryMarkers, int maxLexemeLength, long startOffset) {
+        this(grammar, withBoundaryMarkers, maxLexemeLength);
+        this.offset = startOffset;
+    }
+
+    private Lexer(CharSequence input, StringBuilder buffer, Grammar grammar, boolean withBoundaryMarkers, int maxLexemeLength) {
+        if(maxLexemeLength < 1) {
+            throw new IllegalArgumentException("Maximum lexeme length must be greater than 0");
+        }
+
+        this.input = null != buffer ? buffer : input;
+        this.buffer = buffer;
+        this.position = 0;
+        this.maxLexemeLength = maxLexemeLength;
+
+        this.terminals = grammar.getTerminals().toArray(new Terminal[0]);
+        this.automaton = grammar.getLexerAutomaton().orElse(null);
+        this.matchers = null == automaton ? createMatchers(this.input) : null;
+
+        this.boundaryMarker = withBoundaryMarkers ? getBoundaryMarker(grammar) : null;
+        this.startMarkerPending = withBoundaryMarkers;
+        this.endMarkerPending = withBoundaryMarkers;
+    }
+
+    /**
+     * Boundary marker is taken from the grammar so the lexeme carries its identifier. Grammars without the marker
+     * get the generic one.
+     * @param grammar grammar
+     * @return boundary marker terminal
+     */
+    private static Terminal getBoundaryMarker(Grammar grammar) {
+        SymbolTable symbolTable = grammar.getSymbolTable();
+        int id = symbolTable.getId(Terminal.BOUNDARY_MARKER);
+
+        return id == Symbol.UNDEFINED_ID ? Terminal.BOUNDARY_MARKER : (Terminal) symbolTable.get(id);
+    }
+
+    private Matcher[] createMatchers(CharSequence input) {
+        Matcher[] result = new Matcher[terminals.length];
+        for(int i = 0; i < terminals.length; i++) {
+            result[i] = terminals[i].matcher(input);
+        }
+        return result;
+    }
+
+    /**
+     * Appends next chunk of the input. Characters of already returned lexemes are removed from the buffer.
+     * @param chunk input characters
+     */
+    public void feed(CharSequence chunk) {
+        if(null == buffer) {
+            throw new IllegalStateException("Lexer was created for complete input");
+        }
+        if(endOfInput) {
+            throw new IllegalStateException("End of input was already reached");
+        }
+
+        buffer.delete(0, position);
+        offset += position;
+        position = 0;
+
+        buffer.append(chunk);
+        resetMatchers();
+    }
+
+    /**
+     * Marks the end of input provided in chunks
+     */
+    public void finish() {
+        if(null == buffer) {
+            throw new IllegalStateException("Lexer was created for complete input");
+        }
+        endOfInput = true;
+    }
+
+    private void resetMatchers() {
+        if(null != matchers) {
+            for(Matcher matcher : matchers) {
+                matcher.reset(input);
+            }
+        }
+    }
+
+    /**
+     * Checks if next lexeme is available. For input provided in chunks it returns false also when the lexeme can't be
+     * determined until more input arrives.
+     * @return true if next lexeme can be read
+     * @throws LexerException when the input does not match any terminal
+     */
+    public boolean hasNext() throws LexerException {
+        return hasCharactersLeft() && null != peekNext();
     }
 
     /**
@@ -84,25 +246,100 @@ public class Lexer {
             lexeme = next();
         }
 
-        input = input.substring(lexeme.getValueLength());
+        if(startMarkerPending) {
+            startMarkerPending = false;
+        } else if(position < input.length()) {
+            position += lexeme.getValueLength();
+        } else {
+            endMarkerPending = false;
+        }
+
+        if(Tracing.ENABLED) {
+            Tracing.trace(Lexer.class, "Lexeme found: {}", lexeme);
+        }
 
         return lexeme;
     }
 
     /**
      * When multiple terminals matches the value, the longest match is used. If matches length
-     * is the same, the behavior is undefined.
+     * is the same, the terminal defined first is used.
      *
      * @return
      * @throws LexerException
      */
     private Lexeme next() throws LexerException {
-        return terminals.stream()
-                .map(terminal -> Pair.of(terminal, terminal.lastMatchedIndex(input))) // get terminal with its match length
-                .filter(match -> match.getRight() > 0) // filter results without match
-                .max(Comparator.comparingInt(Pair::getRight)) // get max result
-                .map(match -> Lexeme.of(input.substring(0, match.getRight()), match.getLeft(), getIndex(match.getLeft()))) // map result to lexeme
-                .orElseThrow(() -> new LexerException(input)); // missing terminal matching input
+        if(startMarkerPending) {
+            return getBoundaryMarker();
+        } else if(position == input.length()) {
+            return endOfInput ? getBoundaryMarker() : null;
+        }
+        return null != automaton ? nextUsingAutomaton() : nextUsingRegularExpressions();
+    }
+
+    private Lexeme getBoundaryMarker() {
+        return Lexeme.of(BOUNDARY_MARKER_VALUE, boundaryMarker, getIndex(boundaryMarker), offset + position);
+    }
+
+    /**
+     * @return null if more input is needed to find the longest match
+     */
+    private Lexeme nextUsingAutomaton() throws LexerException {
+        if(!endOfInput && automaton.reachesEnd(input, position)) {
+            return waitForInput();
+        }
+
+        long match = automaton.longestMatch(input, position);
+        if(match == LexerAutomaton.NO_MATCH) {
+            throw new LexerException(getVicinity()); // missing terminal matching input
+        }
+
+        Terminal terminal = automaton.getTerminal(LexerAutomaton.getMatchTerminal(match));
+        return createLexeme(terminal, LexerAutomaton.getMatchLength(match));
+    }
+
+    /**
+     * @return null if more input is needed to find the longest match
+     */
+    private Lexeme nextUsingRegularExpressions() throws LexerException {
+        Terminal matchedTerminal = null;
+        int matchLength = 0;
+        boolean hitEnd = false;
+        for(int i = 0; i < terminals.length; i++) {
+            int length = Terminal.lastMatchedIndex(matchers[i], position) - position;
+            if(length > matchLength) { // strictly greater so the first defined terminal wins
+                matchedTerminal = terminals[i];
+                matchLength = length;
+            }
+            hitEnd |= matchers[i].hitEnd();
+        }
+
+        if(!endOfInput && hitEnd) {
+            return waitForInput();
+        }
+
+        if(null == matchedTerminal) {
+            throw new LexerException(getVicinity()); // missing terminal matching input
+        }
+
+        return createLexeme(matchedTerminal, matchLength);
+    }
+
+    /**
+     * Lexeme can't be determined until more input arrives
+     * @return always null
+     * @throws LexerException when unfinished lexeme already exceeds the maximum length
+     */
+    private Lexeme waitForInput() throws LexerException {
+        if(input.length() - position > maxLexemeLength) {
+            throw new LexerException("Lexeme exceeds maximum length of " + maxLexemeLength + " characters", getVicinity());
+        }
+        return null;
+    }
+
+    private Lexeme createLexeme(Terminal terminal, int length) {
+        String value = input.subSequence(position, position + length).toString();
+        return Lexeme.of(value, terminal, getIndex(terminal), offset + position);
     }
 
     /**
@@ -115,7 +352,14 @@ public class Lexer {
         return occurrenceCounterMap.merge(terminal, 1, Integer::sum);
     }
 
+    private String getVicinity() {
+        return input.subSequence(position, Math.min(input.length(), position + EXCEPTION_VICINITY_LENGTH)).toString();
+    }
+
+    /**
+     * @return true if there are any lexemes left, including pending boundary markers
+     */
     public boolean hasCharactersLeft() {
-        return !input.isEmpty();
+        return startMarkerPending || endMarkerPending || position < input.length();
     }
 }
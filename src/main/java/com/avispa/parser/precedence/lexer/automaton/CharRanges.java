@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.lexer.automaton;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Set of characters represented as sorted, disjoint and non-adjacent inclusive ranges stored in a flat array:
+ * [from0, to0, from1, to1, ...]. Only UTF-16 code units are supported, so the universe is 0x0000-0xFFFF.
+ *
+ * @author Rafał Hiszpański
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class CharRanges {
+    static final int MIN = Character.MIN_VALUE;
+    static final int MAX = Character.MAX_VALUE;
+
+    static final int[] EMPTY = new int[0];
+    static final int[] DIGITS = of('0', '9');
+    static final int[] WORD = union(union(of('a', 'z'), of('A', 'Z')), union(of('_'), DIGITS));
+    static final int[] WHITESPACE = union(of('\t', '\r'), of(' ')); // [ \t\n\x0B\f\r]
+    /**
+     * Any character except line terminators, as defined for "." by {@link java.util.regex.Pattern}
+     */
+    static final int[] ANY_EXCEPT_LINE_TERMINATOR = complement(union(union(of('\n'), of('\r')),
+            union(of(0x0085), of(0x2028, 0x2029))));
+
+    static int[] of(int from, int to) {
+        return new int[] {from, to};
+    }
+
+    static int[] of(int character) {
+        return of(character, character);
+    }
+
+    static int[] union(int[] a, int[] b) {
+        int[] merged = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+
+        return normalize(merged);
+    }
+
+    static int[] complement(int[] ranges) {
+        int[] result = new int[ranges.length + 2];
+        int size = 0;
+        int next = MIN;
+
+        for(int i = 0; i < ranges.length; i += 2) {
+            if(ranges[i] > next) {
+                result[size++] = next;
+                result[size++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+
+        if(next <= MAX) {
+            result[size++] = next;
+            result[size++] = MAX;
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Sorts ranges by their lower bound and merges overlapping or adjacent ones
+     * @param ranges unordered ranges
+     * @return normalized ranges
+     */
+    private static int[] normalize(int[] ranges) {
+        int count = ranges.length / 2;
+        long[] packed = new long[count];
+        for(int i = 0; i < count; i++) {
+            packed[i] = ((long) ranges[2 * i] << 32) | ranges[2 * i + 1];
+        }
+        Arrays.sort(packed);
+
+        int[] result = new int[ranges.length];
+        int size = 0;
+        for(long range : packed) {
+            int from = (int) (range >>> 32);
+            int to = (int) range;
+
+            if(size > 0 && from <= result[size - 1] + 1) {
+                result[size - 1] = Math.max(result[size - 1], to);
+            } else {
+                result[size++] = from;
+                result[size++] = to;
+            }
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+}
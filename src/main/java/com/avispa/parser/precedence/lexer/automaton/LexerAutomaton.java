@@ -0,0 +1,419 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.lexer.automaton;
+
+import com.avispa.parser.precedence.grammar.Terminal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic finite automaton recognizing all terminals of the grammar at once. It allows finding the longest
+ * matching lexeme in a single pass over the input characters, independently of the number of terminals.
+ *
+ * The automaton is built from the terminals regular expressions using Thompson's construction followed by
+ * the subset construction. To keep the transition table compact, characters are grouped into classes - characters
+ * which are never distinguished by any of the regular expressions share the same class.
+ *
+ * When multiple terminals match the lexeme of the same length, the terminal which was provided first wins.
+ *
+ * A single terminal matches the same lexeme as {@link java.util.regex.Pattern#matcher(CharSequence)} with
+ * {@link java.util.regex.Matcher#lookingAt()} would - alternatives are tried in order and quantifiers are greedy, so
+ * it is not necessarily the longest one (e.g. a|ab matches only "a" of "ab"). The automaton states are therefore
+ * ordered lists of NFA states instead of sets. Once the terminal is matched, its states with lower priority are
+ * dropped, like the alternatives never tried by the backtracking matcher. Repetitions of subexpressions matching empty
+ * string, where the matcher ends the loop on the empty iteration, are rejected by {@link RegexParser}.
+ *
+ * The automaton is immutable and can be shared between threads.
+ *
+ * @author Rafał Hiszpański
+ */
+@Slf4j
+public final class LexerAutomaton {
+    public static final long NO_MATCH = -1;
+
+    private static final int DEAD_STATE = -1;
+    private static final int ASCII_SIZE = 128;
+    private static final int READ_CHUNK_SIZE = 4096;
+
+    /**
+     * Limit of DFA states protecting from the exponential blow up of the subset construction
+     */
+    private static final int MAX_STATES = 10_000;
+
+    private final Terminal[] terminals;
+
+    private final int[] classBoundaries; // first character of each character class
+    private final int[] asciiClasses; // fast path for the most common characters
+    private final int classCount;
+
+    private final int[] transitions; // state * classCount + class -> state
+    private final int[] acceptedTerminals; // state -> terminal index or -1
+
+    private LexerAutomaton(Terminal[] terminals, int[] classBoundaries, int[] transitions, int[] acceptedTerminals) {
+        this.terminals = terminals;
+        this.classBoundaries = classBoundaries;
+        this.classCount = classBoundaries.length;
+        this.transitions = transitions;
+        this.acceptedTerminals = acceptedTerminals;
+
+        this.asciiClasses = new int[ASCII_SIZE];
+        for(int c = 0; c < ASCII_SIZE; c++) {
+            this.asciiClasses[c] = findClass(c);
+        }
+    }
+
+    /**
+     * Compiles terminals into single automaton. The order of terminals defines their priority.
+     * @param terminals terminals to recognize
+     * @return compiled automaton
+     * @throws UnsupportedRegexException when any of the terminals uses regular expression construct, which can't be
+     * represented by the finite automaton
+     */
+    public static LexerAutomaton compile(List<Terminal> terminals) throws UnsupportedRegexException {
+        Nfa nfa = new Nfa();
+        int start = nfa.addState();
+
+        for(int i = 0; i < terminals.size(); i++) {
+            int firstState = nfa.size();
+            Nfa.Fragment fragment = RegexParser.parse(terminals.get(i).getRegex()).build(nfa);
+            nfa.addEpsilon(start, fragment.getStart());
+            nfa.setAccepting(fragment.getEnd(), i);
+            nfa.setOwner(firstState, i);
+        }
+
+        int[] classBoundaries = computeClassBoundaries(nfa);
+
+        LexerAutomaton automaton = determinize(nfa, start, terminals.toArray(new Terminal[0]), classBoundaries);
+
+        log.debug("Lexer automaton with {} states and {} character classes compiled for {} terminals.",
+                automaton.getStateCount(), automaton.classCount, terminals.size());
+
+        return automaton;
+    }
+
+    /**
+     * Writes the automaton tables in the form read by {@link #readFrom(DataInput, List)}. Terminals are not written,
+     * they are defined by the grammar.
+     * @param output binary output
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        writeArray(output, classBoundaries);
+        writeArray(output, transitions);
+        writeArray(output, acceptedTerminals);
+    }
+
+    /**
+     * @param input binary input
+     * @param terminals terminals in the same order as used for the compilation
+     * @return automaton written by {@link #writeTo(DataOutput)}
+     * @throws IllegalArgumentException when tables are inconsistent with each other or with the terminals
+     */
+    public static LexerAutomaton readFrom(DataInput input, List<Terminal> terminals) throws IOException {
+        int[] classBoundaries = readArray(input, readLength(input, CharRanges.MAX + 1, "character classes"));
+        int[] transitions = readArray(input, readLength(input, Integer.MAX_VALUE, "transitions"));
+        int[] acceptedTerminals = readArray(input, readLength(input, MAX_STATES, "states"));
+
+        if(classBoundaries.length == 0 || classBoundaries[0] != CharRanges.MIN) {
+            throw new IllegalArgumentException("Character classes must start at the first character");
+        }
+        for(int i = 1; i < classBoundaries.length; i++) {
+            if(classBoundaries[i] <= classBoundaries[i - 1] || classBoundaries[i] > CharRanges.MAX) {
+                throw new IllegalArgumentException("Character classes boundaries must be increasing characters");
+            }
+        }
+
+        if(acceptedTerminals.length == 0 || transitions.length != (long) acceptedTerminals.length * classBoundaries.length) {
+            throw new IllegalArgumentException("Automaton transitions do not match number of states and character classes");
+        }
+        for(int target : transitions) {
+            if(target < DEAD_STATE || target >= acceptedTerminals.length) {
+                throw new IllegalArgumentException("Transition to unknown state " + target);
+            }
+        }
+        for(int terminal : acceptedTerminals) {
+            if(terminal < Nfa.NO_TERMINAL || terminal >= terminals.size()) {
+                throw new IllegalArgumentException("State accepts unknown terminal " + terminal);
+            }
+        }
+
+        return new LexerAutomaton(terminals.toArray(new Terminal[0]), classBoundaries, transitions, acceptedTerminals);
+    }
+
+    /**
+     * Creates automaton sharing the tables, but returning provided terminals. Used when terminals are replaced by
+     * their interned instances.
+     * @param terminals terminals in the same order as used for the compilation
+     * @return new automaton
+     */
+    public LexerAutomaton withTerminals(List<Terminal> terminals) {
+        if(terminals.size() != this.terminals.length) {
+            throw new IllegalArgumentException("Automaton recognizes " + this.terminals.length + " terminals, got " + terminals.size());
+        }
+
+        return new LexerAutomaton(terminals.toArray(new Terminal[0]), classBoundaries, transitions, acceptedTerminals);
+    }
+
+    private static void writeArray(DataOutput output, int[] array) throws IOException {
+        output.writeInt(array.length);
+        for(int value : array) {
+            output.writeInt(value);
+        }
+    }
+
+    private static int readLength(DataInput input, int max, String name) throws IOException {
+        int length = input.readInt();
+        if(length < 0 || length > max) {
+            throw new IllegalArgumentException("Invalid number of " + name + ": " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Array grows while the values are read, so the corrupted length fails on the end of input instead of allocating
+     * memory for values which are not there
+     */
+    private static int[] readArray(DataInput input, int length) throws IOException {
+        int[] array = new int[Math.min(length, READ_CHUNK_SIZE)];
+        for(int i = 0; i < length; i++) {
+            if(i == array.length) {
+                array = Arrays.copyOf(array, (int) Math.min(length, 2L * array.length));
+            }
+            array[i] = input.readInt();
+        }
+        return array;
+    }
+
+    /**
+     * Splits characters universe into classes using bounds of all ranges used by the transitions
+     * @param nfa non-deterministic automaton
+     * @return sorted array of first characters of each class
+     */
+    private static int[] computeClassBoundaries(Nfa nfa) {
+        TreeSet<Integer> boundaries = new TreeSet<>();
+        boundaries.add(CharRanges.MIN);
+
+        for(int state = 0; state < nfa.size(); state++) {
+            int[] ranges = nfa.getRanges(state);
+            if(null != ranges) {
+                for(int i = 0; i < ranges.length; i += 2) {
+                    boundaries.add(ranges[i]);
+                    if(ranges[i + 1] < CharRanges.MAX) {
+                        boundaries.add(ranges[i + 1] + 1);
+                    }
+                }
+            }
+        }
+
+        return boundaries.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static LexerAutomaton determinize(Nfa nfa, int nfaStart, Terminal[] terminals, int[] classBoundaries) throws UnsupportedRegexException {
+        int classCount = classBoundaries.length;
+        int[][] transitionClasses = computeTransitionClasses(nfa, classBoundaries);
+
+        Map<List<Integer>, Integer> stateIds = new HashMap<>();
+        List<int[]> states = new ArrayList<>();
+        List<int[]> transitions = new ArrayList<>();
+
+        addState(nfa.closure(List.of(nfaStart)), states, stateIds);
+
+        for(int current = 0; current < states.size(); current++) {
+            List<List<Integer>> moves = new ArrayList<>(Collections.nCopies(classCount, null));
+
+            for(int nfaState : states.get(current)) { // in the order of priority, so the moves keep it
+                int[] classes = transitionClasses[nfaState];
+                if(null != classes) {
+                    for (int characterClass : classes) {
+                        if (null == moves.get(characterClass)) {
+                            moves.set(characterClass, new ArrayList<>());
+                        }
+                        moves.get(characterClass).add(nfa.getTarget(nfaState));
+                    }
+                }
+            }
+
+            int[] row = new int[classCount];
+            Arrays.fill(row, DEAD_STATE);
+            for(int characterClass = 0; characterClass < classCount; characterClass++) {
+                if(null != moves.get(characterClass)) {
+                    int[] target = nfa.closure(moves.get(characterClass));
+                    if(target.length > 0) {
+                        row[characterClass] = addState(target, states, stateIds);
+                    }
+                }
+            }
+            transitions.add(row);
+        }
+
+        int[] flatTransitions = new int[states.size() * classCount];
+        int[] acceptedTerminals = new int[states.size()];
+        for(int state = 0; state < states.size(); state++) {
+            System.arraycopy(transitions.get(state), 0, flatTransitions, state * classCount, classCount);
+            acceptedTerminals[state] = getAcceptedTerminal(nfa, states.get(state));
+        }
+
+        return new LexerAutomaton(terminals, classBoundaries, flatTransitions, acceptedTerminals);
+    }
+
+    /**
+     * @return identifier of existing state with the same NFA states in the same order or of the newly added one
+     */
+    private static int addState(int[] nfaStates, List<int[]> states, Map<List<Integer>, Integer> stateIds) throws UnsupportedRegexException {
+        List<Integer> key = Arrays.stream(nfaStates).boxed().collect(Collectors.toList());
+        Integer id = stateIds.get(key);
+        if(null == id) {
+            if(states.size() >= MAX_STATES) {
+                throw new UnsupportedRegexException("Terminals regular expressions produce too many automaton states");
+            }
+            id = states.size();
+            states.add(nfaStates);
+            stateIds.put(key, id);
+        }
+        return id;
+    }
+
+    /**
+     * For each NFA state with character transition, finds indexes of character classes covered by the transition
+     */
+    private static int[][] computeTransitionClasses(Nfa nfa, int[] classBoundaries) {
+        int[][] result = new int[nfa.size()][];
+        for(int state = 0; state < nfa.size(); state++) {
+            int[] ranges = nfa.getRanges(state);
+            if(null != ranges) {
+                List<Integer> classes = new ArrayList<>();
+                for(int i = 0; i < ranges.length; i += 2) {
+                    int first = Arrays.binarySearch(classBoundaries, ranges[i]); // range starts are always boundaries
+                    for(int characterClass = first; characterClass < classBoundaries.length && classBoundaries[characterClass] <= ranges[i + 1]; characterClass++) {
+                        classes.add(characterClass);
+                    }
+                }
+                result[state] = classes.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets accepted terminal with the highest priority (the lowest index)
+     */
+    private static int getAcceptedTerminal(Nfa nfa, int[] nfaStates) {
+        int accepted = Nfa.NO_TERMINAL;
+        for(int nfaState : nfaStates) {
+            int terminal = nfa.getAcceptedTerminal(nfaState);
+            if(terminal != Nfa.NO_TERMINAL && (accepted == Nfa.NO_TERMINAL || terminal < accepted)) {
+                accepted = terminal;
+            }
+        }
+        return accepted;
+    }
+
+    private int findClass(int c) {
+        int index = Arrays.binarySearch(classBoundaries, c);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    private int getClass(char c) {
+        return c < ASCII_SIZE ? asciiClasses[c] : findClass(c);
+    }
+
+    /**
+     * Finds the longest non-empty lexeme starting at provided position.
+     *
+     * @param input input characters
+     * @param from position of the first character of the lexeme
+     * @return {@link #NO_MATCH} when no terminal matches the input, otherwise match length and terminal index encoded
+     * into single value, which can be decoded using {@link #getMatchLength(long)} and {@link #getMatchTerminal(long)}
+     */
+    public long longestMatch(CharSequence input, int from) {
+        int state = 0;
+        int acceptedTerminal = Nfa.NO_TERMINAL;
+        int acceptedEnd = from;
+
+        for(int i = from, length = input.length(); i < length; i++) {
+            state = transitions[state * classCount + getClass(input.charAt(i))];
+            if(state == DEAD_STATE) {
+                break;
+            }
+
+            int terminal = acceptedTerminals[state];
+            if(terminal != Nfa.NO_TERMINAL) {
+                acceptedTerminal = terminal;
+                acceptedEnd = i + 1;
+            }
+        }
+
+        if(acceptedTerminal == Nfa.NO_TERMINAL) {
+            return NO_MATCH;
+        }
+
+        return ((long) (acceptedEnd - from) << 32) | acceptedTerminal;
+    }
+
+    /**
+     * Checks if scanning from provided position reaches the end of the input without leaving the automaton. In such
+     * case more input characters could change the longest match.
+     *
+     * @param input input characters
+     * @param from position of the first character of the lexeme
+     * @return true if the longest match might be extended by the characters following the input
+     */
+    public boolean reachesEnd(CharSequence input, int from) {
+        int state = 0;
+        for(int i = from, length = input.length(); i < length; i++) {
+            state = transitions[state * classCount + getClass(input.charAt(i))];
+            if(state == DEAD_STATE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int getMatchLength(long match) {
+        return (int) (match >>> 32);
+    }
+
+    public static int getMatchTerminal(long match) {
+        return (int) match;
+    }
+
+    public Terminal getTerminal(int index) {
+        return terminals[index];
+    }
+
+    public int getStateCount() {
+        return acceptedTerminals.length;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.lexer.automaton;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Non-deterministic finite automaton built with Thompson's construction. Every state has at most one transition
+ * consuming a character (for a set of character ranges) and any number of epsilon transitions. Epsilon transitions
+ * are ordered by priority in the same way as {@link java.util.regex.Pattern} tries the alternatives - in the order of
+ * alternatives and with greedy quantifiers trying one more repetition before leaving the loop.
+ *
+ * @author Rafał Hiszpański
+ */
+final class Nfa {
+    static final int NO_TERMINAL = -1;
+
+    /**
+     * Limit of states protecting from the huge automatons caused by large bounded repetitions like a{1,100000}
+     */
+    private static final int MAX_STATES = 100_000;
+
+    private final List<int[]> ranges = new ArrayList<>();
+    private final List<Integer> targets = new ArrayList<>();
+    private final List<List<Integer>> epsilons = new ArrayList<>();
+    private final List<Integer> acceptedTerminals = new ArrayList<>();
+    private final List<Integer> owners = new ArrayList<>(); // terminal, which regular expression created the state
+
+    @Getter
+    @AllArgsConstructor
+    static final class Fragment {
+        private final int start;
+        private final int end;
+    }
+
+    int addState() throws UnsupportedRegexException {
+        if(size() >= MAX_STATES) {
+            throw new UnsupportedRegexException("Regular expressions are too complex to build an automaton");
+        }
+
+        ranges.add(null);
+        targets.add(-1);
+        epsilons.add(new ArrayList<>(2));
+        acceptedTerminals.add(NO_TERMINAL);
+        owners.add(NO_TERMINAL);
+
+        return size() - 1;
+    }
+
+    void addTransition(int from, int[] characterRanges, int to) {
+        ranges.set(from, characterRanges);
+        targets.set(from, to);
+    }
+
+    void addEpsilon(int from, int to) {
+        epsilons.get(from).add(to);
+    }
+
+    void setAccepting(int state, int terminalIndex) {
+        acceptedTerminals.set(state, terminalIndex);
+    }
+
+    /**
+     * Assigns all states created starting from provided state to the terminal
+     * @param fromState first state created for the terminal
+     * @param terminalIndex index of the terminal
+     */
+    void setOwner(int fromState, int terminalIndex) {
+        for(int state = fromState; state < size(); state++) {
+            owners.set(state, terminalIndex);
+        }
+    }
+
+    int size() {
+        return ranges.size();
+    }
+
+    int[] getRanges(int state) {
+        return ranges.get(state);
+    }
+
+    int getTarget(int state) {
+        return targets.get(state);
+    }
+
+    int getAcceptedTerminal(int state) {
+        return acceptedTerminals.get(state);
+    }
+
+    /**
+     * Follows epsilon transitions from provided states and returns reached states consuming a character or accepting
+     * a terminal. States are visited depth-first in the order of their priorities, so the result is ordered by priority
+     * too. States of the terminal listed after its accepting state are dropped - {@link java.util.regex.Pattern} never
+     * tries them, because the match with the higher priority was already found.
+     *
+     * @param states states ordered by priority
+     * @return reached states ordered by priority
+     */
+    int[] closure(List<Integer> states) {
+        BitSet visited = new BitSet(size());
+        BitSet matchedTerminals = new BitSet();
+        List<Integer> result = new ArrayList<>();
+
+        Deque<Integer> stack = new ArrayDeque<>();
+        for(int i = states.size() - 1; i >= 0; i--) { // pushed in reverse, so the first state is popped first
+            stack.push(states.get(i));
+        }
+
+        while(!stack.isEmpty()) {
+            int state = stack.pop();
+            int owner = owners.get(state);
+            if(visited.get(state) || (owner != NO_TERMINAL && matchedTerminals.get(owner))) {
+                continue;
+            }
+            visited.set(state);
+
+            int terminal = acceptedTerminals.get(state);
+            if(terminal != NO_TERMINAL) {
+                result.add(state);
+                matchedTerminals.set(terminal);
+            } else if(null != ranges.get(state)) {
+                result.add(state);
+            }
+
+            List<Integer> next = epsilons.get(state);
+            for(int i = next.size() - 1; i >= 0; i--) {
+                stack.push(next.get(i));
+            }
+        }
+
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.lexer.automaton;
+
+import java.util.List;
+
+/**
+ * Node of the regular expression syntax tree. Each node knows how to build its own Thompson's construction fragment.
+ * Tree is kept instead of building the automaton directly while parsing because bounded repetitions (e.g. {2,3})
+ * require the same subexpression to be instantiated multiple times.
+ *
+ * @author Rafał Hiszpański
+ */
+abstract class RegexNode {
+    static final int UNBOUNDED = -1;
+
+    abstract Nfa.Fragment build(Nfa nfa) throws UnsupportedRegexException;
+
+    /**
+     * @return true if the node matches empty string
+     */
+    abstract boolean matchesEmpty();
+
+    static RegexNode characters(int[] ranges) {
+        return new Characters(ranges);
+    }
+
+    static RegexNode concatenation(List<RegexNode> nodes) {
+        return nodes.size() == 1 ? nodes.get(0) : new Concatenation(nodes);
+    }
+
+    static RegexNode alternation(List<RegexNode> nodes) {
+        return nodes.size() == 1 ? nodes.get(0) : new Alternation(nodes);
+    }
+
+    /**
+     * {@link java.util.regex.Pattern} ends the loop as soon as an iteration matches empty string, even if other
+     * alternatives of the iteration could consume more characters. Automaton can't express this rule, so such
+     * repetitions are not supported.
+     * @throws UnsupportedRegexException when the number of repetitions is not fixed and the node matches empty string
+     */
+    static RegexNode repetition(RegexNode node, int min, int max) throws UnsupportedRegexException {
+        if(min != max && node.matchesEmpty()) {
+            throw new UnsupportedRegexException("Repeated subexpression matching empty string is not supported");
+        }
+        return new Repetition(node, min, max);
+    }
+
+    private static final class Characters extends RegexNode {
+        private final int[] ranges;
+
+        private Characters(int[] ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        Nfa.Fragment build(Nfa nfa) throws UnsupportedRegexException {
+            int start = nfa.addState();
+            int end = nfa.addState();
+            nfa.addTransition(start, ranges, end);
+
+            return new Nfa.Fragment(start, end);
+        }
+
+        @Override
+        boolean matchesEmpty() {
+            return false;
+        }
+    }
+
+    private static final class Concatenation extends RegexNode {
+        private final List<RegexNode> nodes;
+
+        private Concatenation(List<RegexNode> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        Nfa.Fragment build(Nfa nfa) throws UnsupportedRegexException {
+            if(nodes.isEmpty()) {
+                int state = nfa.addState();
+                return new Nfa.Fragment(state, state);
+            }
+
+            Nfa.Fragment result = null;
+            for(RegexNode node : nodes) {
+                Nfa.Fragment fragment = node.build(nfa);
+                if(null == result) {
+                    result = fragment;
+                } else {
+                    nfa.addEpsilon(result.getEnd(), fragment.getStart());
+                    result = new Nfa.Fragment(result.getStart(), fragment.getEnd());
+                }
+            }
+
+            return result;
+        }
+
+        @Override
+        boolean matchesEmpty() {
+            return nodes.stream().allMatch(RegexNode::matchesEmpty);
+        }
+    }
+
+    private static final class Alternation extends RegexNode {
+        private final List<RegexNode> nodes;
+
+        private Alternation(List<RegexNode> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        Nfa.Fragment build(Nfa nfa) throws UnsupportedRegexException {
+            int start = nfa.addState();
+            int end = nfa.addState();
+
+            for(RegexNode node : nodes) {
+                Nfa.Fragment fragment = node.build(nfa);
+                nfa.addEpsilon(start, fragment.getStart());
+                nfa.addEpsilon(fragment.getEnd(), end);
+            }
+
+            return new Nfa.Fragment(start, end);
+        }
+
+        @Override
+        boolean matchesEmpty() {
+            return nodes.stream().anyMatch(RegexNode::matchesEmpty);
+        }
+    }
+
+    private static final class Repetition extends RegexNode {
+        private final RegexNode node;
+        private final int min;
+        private final int max;
+
+        private Repetition(RegexNode node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Mandatory occurrences are chained first. Then either a loop (unbounded repetition) or a chain of optional
+         * occurrences is appended.
+         */
+        @Override
+        Nfa.Fragment build(Nfa nfa) throws UnsupportedRegexException {
+            int start = nfa.addState();
+            int end = start;
+
+            for(int i = 0; i < min; i++) {
+                end = append(nfa, end, node.build(nfa));
+            }
+
+            if(max == UNBOUNDED) {
+                Nfa.Fragment loop = node.build(nfa);
+                int loopEnd = nfa.addState();
+                nfa.addEpsilon(end, loop.getStart());
+                nfa.addEpsilon(end, loopEnd);
+                nfa.addEpsilon(loop.getEnd(), loop.getStart());
+                nfa.addEpsilon(loop.getEnd(), loopEnd);
+                end = loopEnd;
+            } else {
+                int optionalEnd = nfa.addState();
+                for(int i = min; i < max; i++) {
+                    int previous = end;
+                    end = append(nfa, end, node.build(nfa)); // greedy - the occurrence is tried before skipping
+                    nfa.addEpsilon(previous, optionalEnd);
+                }
+                nfa.addEpsilon(end, optionalEnd);
+                end = optionalEnd;
+            }
+
+            return new Nfa.Fragment(start, end);
+        }
+
+        @Override
+        boolean matchesEmpty() {
+            return min == 0 || node.matchesEmpty();
+        }
+
+        private static int append(Nfa nfa, int end, Nfa.Fragment fragment) {
+            nfa.addEpsilon(end, fragment.getStart());
+            return fragment.getEnd();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.lexer.automaton;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser of the subset of {@link java.util.regex.Pattern} syntax, which describes regular languages and therefore
+ * can be converted into a finite automaton. Supported are: literals, escaped characters, predefined character classes
+ * (\d, \D, \w, \W, \s, \S), character classes with ranges and negation, dot, groups (capturing and non-capturing),
+ * alternatives and greedy quantifiers (*, +, ?, {n}, {n,}, {n,m}). Quantifiers with variable number of repetitions
+ * are not supported for subexpressions matching empty string, see {@link RegexNode#repetition(RegexNode, int, int)}.
+ *
+ * It is assumed that the regular expression was already validated by {@link java.util.regex.Pattern#compile(String)},
+ * so any unexpected construct is reported as unsupported instead of being a syntax error.
+ *
+ * @author Rafał Hiszpański
+ */
+final class RegexParser {
+    private final String regex;
+    private int position;
+
+    private RegexParser(String regex) {
+        this.regex = regex;
+        this.position = 0;
+    }
+
+    static RegexNode parse(String regex) throws UnsupportedRegexException {
+        RegexParser parser = new RegexParser(regex);
+        RegexNode node = parser.parseAlternation();
+
+        if(parser.hasMore()) {
+            throw parser.unsupported("unexpected character");
+        }
+
+        return node;
+    }
+
+    private RegexNode parseAlternation() throws UnsupportedRegexException {
+        List<RegexNode> alternatives = new ArrayList<>();
+        alternatives.add(parseConcatenation());
+
+        while(hasMore() && current() == '|') {
+            position++;
+            alternatives.add(parseConcatenation());
+        }
+
+        return RegexNode.alternation(alternatives);
+    }
+
+    private RegexNode parseConcatenation() throws UnsupportedRegexException {
+        List<RegexNode> nodes = new ArrayList<>();
+
+        while(hasMore() && current() != '|' && current() != ')') {
+            nodes.add(parseRepetition());
+        }
+
+        return RegexNode.concatenation(nodes);
+    }
+
+    private RegexNode parseRepetition() throws UnsupportedRegexException {
+        RegexNode node = parseAtom();
+
+        while(hasMore()) {
+            char c = current();
+            int min;
+            int max;
+            if(c == '*') {
+                min = 0;
+                max = RegexNode.UNBOUNDED;
+                position++;
+            } else if(c == '+') {
+                min = 1;
+                max = RegexNode.UNBOUNDED;
+                position++;
+            } else if(c == '?') {
+                min = 0;
+                max = 1;
+                position++;
+            } else if(c == '{') {
+                position++;
+                min = parseNumber();
+                max = min;
+                if(hasMore() && current() == ',') {
+                    position++;
+                    max = hasMore() && current() == '}' ? RegexNode.UNBOUNDED : parseNumber();
+                }
+                expect('}');
+            } else {
+                break;
+            }
+
+            if(hasMore() && (current() == '?' || current() == '+')) {
+                throw unsupported("lazy and possessive quantifiers are not supported");
+            }
+
+            node = RegexNode.repetition(node, min, max);
+        }
+
+        return node;
+    }
+
+    private RegexNode parseAtom() throws UnsupportedRegexException {
+        char c = regex.charAt(position++);
+        switch(c) {
+            case '(':
+                if(hasMore() && current() == '?') {
+                    position++;
+                    if(!hasMore() || current() != ':') {
+                        throw unsupported("only non-capturing special groups are supported");
+                    }
+                    position++;
+                }
+                RegexNode group = parseAlternation();
+                expect(')');
+                return group;
+            case '[':
+                return RegexNode.characters(parseClass());
+            case '.':
+                return RegexNode.characters(CharRanges.ANY_EXCEPT_LINE_TERMINATOR);
+            case '\\':
+                return RegexNode.characters(parseEscape(false));
+            case '^':
+            case '$':
+                throw unsupported("anchors are not supported");
+            case ')':
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw unsupported("unexpected meta character");
+            default:
+                return RegexNode.characters(CharRanges.of(c));
+        }
+    }
+
+    /**
+     * Parses character class. Opening bracket is expected to be already consumed.
+     * @return ranges matched by the class
+     * @throws UnsupportedRegexException when class uses nested classes or intersections
+     */
+    private int[] parseClass() throws UnsupportedRegexException {
+        boolean negated = false;
+        if(hasMore() && current() == '^') {
+            negated = true;
+            position++;
+        }
+
+        if(hasMore() && current() == ']') {
+            throw unsupported("leading closing bracket in character class is not supported");
+        }
+
+        int[] ranges = CharRanges.EMPTY;
+        while(hasMore() && current() != ']') {
+            char c = current();
+            if(c == '[' || (c == '&' && position + 1 < regex.length() && regex.charAt(position + 1) == '&')) {
+                throw unsupported("nested character classes and intersections are not supported");
+            }
+
+            int[] item = parseClassCharacter();
+            if(item.length == 2 && item[0] == item[1] && isRangeAhead()) {
+                position++; // skip '-'
+                int[] to = parseClassCharacter();
+                if(to.length != 2 || to[0] != to[1] || to[0] < item[0]) {
+                    throw unsupported("invalid range in character class");
+                }
+                item = CharRanges.of(item[0], to[0]);
+            }
+
+            ranges = CharRanges.union(ranges, item);
+        }
+        expect(']');
+
+        return negated ? CharRanges.complement(ranges) : ranges;
+    }
+
+    private boolean isRangeAhead() {
+        return position + 1 < regex.length() && current() == '-' && regex.charAt(position + 1) != ']';
+    }
+
+    private int[] parseClassCharacter() throws UnsupportedRegexException {
+        char c = regex.charAt(position++);
+        if(c == '\\') {
+            return parseEscape(true);
+        }
+        return CharRanges.of(c);
+    }
+
+    /**
+     * Parses escape sequence. Backslash is expected to be already consumed.
+     * @param inClass true if escape is a part of character class
+     * @return ranges matched by the escape sequence
+     * @throws UnsupportedRegexException when escape sequence is not supported
+     */
+    private int[] parseEscape(boolean inClass) throws UnsupportedRegexException {
+        if(!hasMore()) {
+            throw unsupported("dangling backslash");
+        }
+
+        char c = regex.charAt(position++);
+        switch(c) {
+            case 'd':
+                return CharRanges.DIGITS;
+            case 'D':
+                return CharRanges.complement(CharRanges.DIGITS);
+            case 'w':
+                return CharRanges.WORD;
+            case 'W':
+                return CharRanges.complement(CharRanges.WORD);
+            case 's':
+                return CharRanges.WHITESPACE;
+            case 'S':
+                return CharRanges.complement(CharRanges.WHITESPACE);
+            case 't':
+                return CharRanges.of('\t');
+            case 'n':
+                return CharRanges.of('\n');
+            case 'r':
+                return CharRanges.of('\r');
+            case 'f':
+                return CharRanges.of('\f');
+            case 'a':
+                return CharRanges.of('\u0007');
+            case 'e':
+                return CharRanges.of('\u001B');
+            case '0':
+                return CharRanges.of(parseOctal());
+            case 'x':
+                return CharRanges.of(parseHex(2));
+            case 'u':
+                return CharRanges.of(parseHex(4));
+            case 'c':
+                return CharRanges.of(regex.charAt(position++) ^ 64);
+            default:
+                if(Character.isLetterOrDigit(c)) {
+                    throw unsupported(inClass ? "escape sequence \\" + c + " in character class is not supported" :
+                            "escape sequence \\" + c + " is not supported");
+                }
+                return CharRanges.of(c);
+        }
+    }
+
+    private int parseOctal() {
+        int value = 0;
+        int digits = 0;
+        while(hasMore() && digits < 3 && current() >= '0' && current() <= '7' && value * 8 + (current() - '0') <= 0377) {
+            value = value * 8 + (current() - '0');
+            position++;
+            digits++;
+        }
+        return value;
+    }
+
+    private int parseHex(int digits) throws UnsupportedRegexException {
+        if(hasMore() && current() == '{') {
+            throw unsupported("hexadecimal code points are not supported");
+        }
+
+        int value = Integer.parseInt(regex.substring(position, position + digits), 16);
+        position += digits;
+        return value;
+    }
+
+    private int parseNumber() throws UnsupportedRegexException {
+        int start = position;
+        while(hasMore() && Character.isDigit(current())) {
+            position++;
+        }
+
+        if(start == position) {
+            throw unsupported("repetition bound expected");
+        }
+
+        return Integer.parseInt(regex.substring(start, position));
+    }
+
+    private void expect(char c) throws UnsupportedRegexException {
+        if(!hasMore() || current() != c) {
+            throw unsupported("'" + c + "' expected");
+        }
+        position++;
+    }
+
+    private boolean hasMore() {
+        return position < regex.length();
+    }
+
+    private char current() {
+        return regex.charAt(position);
+    }
+
+    private UnsupportedRegexException unsupported(String reason) {
+        return new UnsupportedRegexException(String.format("Regular expression '%s' can't be compiled at position %d: %s", regex, position, reason));
+    }
+}
@@ -46,7 +46,7 @@ public final class Derivation extends AbstractOutputTransformer<List<List<Symbol
     }
 
     @Override
-    public List<List<Symbol>> parse(String input) throws SyntaxException, LexerException {
+    public List<List<Symbol>> parse(CharSequence input) throws SyntaxException, LexerException {
         List<Production> output = getParser().parse(input);
 
         if(output.isEmpty()) {
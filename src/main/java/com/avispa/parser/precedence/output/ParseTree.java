@@ -26,58 +26,54 @@ package com.avispa.parser.precedence.output;
 
 import com.avispa.parser.lexer.LexerException;
 import com.avispa.parser.misc.tree.TreeNode;
-import com.avispa.parser.output.AbstractOutputTransformer;
-import com.avispa.parser.precedence.grammar.NonTerminal;
+import com.avispa.parser.output.OutputTransformer;
 import com.avispa.parser.precedence.grammar.Production;
 import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.lexer.Lexeme;
+import com.avispa.parser.precedence.parser.ParseListener;
 import com.avispa.parser.precedence.parser.PrecedenceParser;
+import com.avispa.parser.precedence.parser.Reduction;
 import com.avispa.parser.precedence.parser.SyntaxException;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.List;
 
 /**
+ * Builds parse tree bottom-up while the input is parsed. Each shifted lexeme becomes a leaf and each reduction
+ * replaces nodes of the handle with the node of production left-hand side.
+ *
  * @author Rafał Hiszpański
  */
-public final class ParseTree extends AbstractOutputTransformer<TreeNode<Symbol>, Production> {
+public final class ParseTree implements OutputTransformer<TreeNode<Symbol>> {
+    private final PrecedenceParser<Production> parser;
 
     public ParseTree(PrecedenceParser<Production> parser) {
-        super(parser);
+        this.parser = parser;
     }
 
     @Override
-    public TreeNode<Symbol> parse(String input) throws SyntaxException, LexerException {
-        Deque<Production> productions = new ArrayDeque<>(getParser().parse(input));
-
-        if(productions.isEmpty()) {
-            return null;
-        }
+    public TreeNode<Symbol> parse(CharSequence input) throws SyntaxException, LexerException {
+        Deque<TreeNode<Symbol>> nodeStack = new ArrayDeque<>();
 
-        TreeNode<Symbol> root = new TreeNode<>(productions.peekLast().getLhs());
-        buildParseTree(root, productions);
-
-        return root;
-    }
-
-    private void buildParseTree(TreeNode<Symbol> currentNode, Deque<Production> productions) {
-        Production currentProduction = productions.removeLast(); // get last production on the stack, this is the first derivation from start symbol
-        List<Symbol> currentRhs = currentProduction.getRhs();
-        var it = currentRhs.listIterator(currentRhs.size());
+        parser.parse(input, new ParseListener() {
+            @Override
+            public void shift(Lexeme lexeme) {
+                nodeStack.push(new TreeNode<>(lexeme));
+            }
 
-        // iterate productions backwards, this is because how parser produces the list of productions
-        while(it.hasPrevious()) {
-            Symbol symbol = it.previous();
-            var node = new TreeNode<>(symbol); // create new node
+            @Override
+            public void reduce(Reduction reduction) {
+                TreeNode<Symbol> node = new TreeNode<>(reduction.getLhs());
 
-            if(symbol instanceof NonTerminal) { // for non-terminals we want to expand production
-                Production production = productions.peekLast();
-                if (production != null && symbol.equals(production.getLhs())) { // if production
-                    buildParseTree(node, productions);
+                // handle nodes are popped from the right, so children are stored backwards, the same way as rhs is read by the parser
+                for(int i = 0; i < reduction.size(); i++) {
+                    node.addChild(nodeStack.pop());
                 }
+
+                nodeStack.push(node);
             }
+        });
 
-            currentNode.addChild(node);
-        }
+        return nodeStack.peek(); // root is the last reduced node
     }
 }
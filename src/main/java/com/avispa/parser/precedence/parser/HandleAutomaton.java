@@ -0,0 +1,249 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.SymbolTable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Automaton recognizing handles on the parser stack. It reads the stack from the top, so it is a trie of reversed
+ * right-hand sides of all productions. Each state reached after reading complete right-hand side knows the id of the
+ * production to reduce with.
+ *
+ * Transitions are stored in an open addressing hash table keyed by state and symbol identifier.
+ *
+ * @author Rafał Hiszpański
+ */
+final class HandleAutomaton {
+    static final int ROOT = 0;
+    static final int NO_STATE = -1;
+    static final int NO_PRODUCTION = -1;
+
+    private static final long EMPTY = -1L;
+
+    private final long[] keys;
+    private final int[] targets;
+    private final int mask;
+
+    private final int[] productions; // production id accepted in state
+
+    static HandleAutomaton compile(List<Production> productions, SymbolTable symbolTable) {
+        Map<Long, Integer> transitions = new HashMap<>();
+        int stateCount = 1; // root
+
+        int[] accepting = new int[1 + productions.stream().mapToInt(production -> production.getRhs().size()).sum()];
+        Arrays.fill(accepting, NO_PRODUCTION);
+
+        for (int productionId = 0; productionId < productions.size(); productionId++) {
+            List<Symbol> rhs = productions.get(productionId).getRhs();
+
+            int state = ROOT;
+            for(int i = rhs.size() - 1; i >= 0; i--) {
+                long key = key(state, symbolTable.getId(rhs.get(i)));
+
+                Integer target = transitions.get(key);
+                if(null == target) {
+                    target = stateCount++;
+                    transitions.put(key, target);
+                }
+                state = target;
+            }
+
+            if(accepting[state] == NO_PRODUCTION) { // first defined production wins
+                accepting[state] = productionId;
+            }
+        }
+
+        return new HandleAutomaton(transitions, Arrays.copyOf(accepting, stateCount));
+    }
+
+    private HandleAutomaton(Map<Long, Integer> transitions, int[] productions) {
+        int capacity = capacity(transitions.size());
+
+        this.keys = new long[capacity];
+        this.targets = new int[capacity];
+        this.mask = capacity - 1;
+        this.productions = productions;
+
+        Arrays.fill(keys, EMPTY);
+        transitions.forEach((key, target) -> {
+            int slot = slot(key);
+            while(keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            targets[slot] = target;
+        });
+    }
+
+    private HandleAutomaton(long[] keys, int[] targets, int[] productions) {
+        this.keys = keys;
+        this.targets = targets;
+        this.mask = keys.length - 1;
+        this.productions = productions;
+    }
+
+    /**
+     * Writes the hash table of transitions and accepted productions in the form read by {@link #readFrom(DataInput, Grammar)}
+     */
+    void writeTo(DataOutput output) throws IOException {
+        output.writeInt(keys.length);
+        for(int slot = 0; slot < keys.length; slot++) {
+            output.writeLong(keys[slot]);
+            output.writeInt(targets[slot]);
+        }
+
+        output.writeInt(productions.length);
+        for(int production : productions) {
+            output.writeInt(production);
+        }
+    }
+
+    /**
+     * @param input binary input
+     * @param grammar grammar the automaton was compiled for
+     * @return automaton written by {@link #writeTo(DataOutput)}
+     * @throws IllegalArgumentException when the automaton does not match the grammar
+     */
+    static HandleAutomaton readFrom(DataInput input, Grammar grammar) throws IOException {
+        int maxStateCount = 1 + grammar.getProductions().stream().mapToInt(production -> production.getRhs().size()).sum();
+
+        int capacity = input.readInt();
+        if(capacity <= 0 || Integer.bitCount(capacity) != 1 || capacity > capacity(maxStateCount - 1)) {
+            throw new IllegalArgumentException("Invalid capacity of handle automaton " + capacity);
+        }
+
+        long[] keys = new long[capacity];
+        int[] targets = new int[capacity];
+        for(int slot = 0; slot < capacity; slot++) {
+            keys[slot] = input.readLong();
+            targets[slot] = input.readInt();
+        }
+
+        int stateCount = input.readInt();
+        if(stateCount <= 0 || stateCount > maxStateCount || capacity != capacity(stateCount - 1)) {
+            throw new IllegalArgumentException("Invalid number of handle automaton states " + stateCount);
+        }
+
+        int[] productions = new int[stateCount];
+        for(int state = 0; state < productions.length; state++) {
+            productions[state] = input.readInt();
+            if(productions[state] < NO_PRODUCTION || productions[state] >= grammar.getProductions().size()) {
+                throw new IllegalArgumentException("State accepts unknown production " + productions[state]);
+            }
+        }
+
+        verifyTransitions(keys, targets, stateCount, grammar.getSymbolTable().size());
+
+        return new HandleAutomaton(keys, targets, productions);
+    }
+
+    /**
+     * Every state except the root is reached by exactly one transition, which reads existing symbol
+     */
+    private static void verifyTransitions(long[] keys, int[] targets, int stateCount, int symbolCount) {
+        int transitionCount = 0;
+        for(int slot = 0; slot < keys.length; slot++) {
+            if(keys[slot] != EMPTY) {
+                int state = (int) (keys[slot] >>> 32);
+                int symbolId = (int) keys[slot];
+                if(state < 0 || state >= stateCount || symbolId < 0 || symbolId >= symbolCount ||
+                        targets[slot] <= ROOT || targets[slot] >= stateCount) {
+                    throw new IllegalArgumentException("Invalid handle automaton transition in slot " + slot);
+                }
+                transitionCount++;
+            }
+        }
+
+        if(transitionCount != stateCount - 1) {
+            throw new IllegalArgumentException("Handle automaton has " + transitionCount + " transitions for " + stateCount + " states");
+        }
+    }
+
+    private static int capacity(int transitionCount) {
+        return Integer.highestOneBit(Math.max(2, transitionCount * 2 - 1)) << 1;
+    }
+
+    private static long key(int state, int symbolId) {
+        return ((long) state << 32) | symbolId;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * @param state current state
+     * @param symbolId identifier of the symbol read from the stack
+     * @return next state or {@link #NO_STATE} when there is no production with such suffix
+     */
+    int transition(int state, int symbolId) {
+        if(symbolId < 0) {
+            return NO_STATE;
+        }
+
+        long key = key(state, symbolId);
+        int slot = slot(key);
+        while(keys[slot] != EMPTY) {
+            if(keys[slot] == key) {
+                return targets[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_STATE;
+    }
+
+    /**
+     * @param state current state
+     * @param symbolId identifier of the symbol
+     * @return true if handle can be extended with the symbol
+     */
+    boolean hasTransition(int state, int symbolId) {
+        return transition(state, symbolId) != NO_STATE;
+    }
+
+    /**
+     * @param state current state
+     * @return id of the production accepted in the state or {@link #NO_PRODUCTION}
+     */
+    int getProduction(int state) {
+        return productions[state];
+    }
+
+    int getStateCount() {
+        return productions.length;
+    }
+}
@@ -28,12 +28,10 @@ import com.avispa.parser.precedence.function.PrecedenceFunctions;
 import com.avispa.parser.precedence.grammar.Grammar;
 import com.avispa.parser.precedence.grammar.Symbol;
 import com.avispa.parser.precedence.table.PrecedenceTable;
-import lombok.extern.slf4j.Slf4j;
+import com.avispa.parser.trace.Tracing;
 
-import java.util.Deque;
 import java.util.List;
 
-@Slf4j
 public class OperatorPrecedenceParser extends PrecedenceParser<Symbol> {
     OperatorPrecedenceParser(Grammar grammar, PrecedenceTable table) {
         super(grammar, table, null);
@@ -43,18 +41,40 @@ public class OperatorPrecedenceParser extends PrecedenceParser<Symbol> {
         super(grammar, table, functions);
     }
 
+    /**
+     * Symbols of each handle are added to the output starting from the top of the stack
+     */
     @Override
-    protected void reduce(List<Symbol> output, Deque<Symbol> symbolStack) throws SyntaxException {
-        log.debug("REDUCE (> relation matched).");
-        Symbol fromStack;
-        Symbol stackTop;
+    protected ParseListener createCollector(List<Symbol> output) {
+        return new ParseListener() {
+            @Override
+            public void reduce(Reduction reduction) {
+                for(int i = reduction.size() - 1; i >= 0; i--) {
+                    Symbol symbol = reduction.getSymbol(i);
+                    if(Tracing.ENABLED) {
+                        Tracing.trace(OperatorPrecedenceParser.class, "Adding {} to the output", symbol);
+                    }
+                    output.add(symbol);
+                }
+            }
+        };
+    }
 
-        do {
-            fromStack = symbolStack.pop();
-            stackTop = symbolStack.peek();
+    @Override
+    protected void findHandle(SymbolStack symbolStack, Reduction reduction) throws SyntaxException {
+        int fromStack;
+        int stackTop;
+        int position = symbolStack.size();
 
-            log.info("Adding {} to the output", fromStack);
-            output.add(fromStack);
+        do {
+            position--;
+            fromStack = symbolStack.getId(position);
+            stackTop = symbolStack.getId(position - 1);
+            if(Symbol.UNDEFINED_ID == stackTop) {
+                throw new SyntaxException("Stack is empty. At least boundary marker is expected to be left");
+            }
         } while(!precedenceLessThan(stackTop, fromStack));
+
+        reduction.set(Reduction.NO_PRODUCTION, position, symbolStack.size() - position);
     }
 }
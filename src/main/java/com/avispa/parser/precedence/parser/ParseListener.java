@@ -0,0 +1,46 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.precedence.lexer.Lexeme;
+
+/**
+ * Receives parser events as they happen. Lexemes are reported in the order they are shifted and reductions in the
+ * order they are performed, so the input can be processed without collecting the whole parser output. Virtual
+ * boundary markers are not reported.
+ *
+ * @author Rafał Hiszpański
+ */
+public interface ParseListener {
+    /**
+     * @param lexeme lexeme pushed on the parser stack
+     */
+    default void shift(Lexeme lexeme) {}
+
+    /**
+     * @param reduction reduced handle. It is valid only until this method returns.
+     */
+    default void reduce(Reduction reduction) {}
+}
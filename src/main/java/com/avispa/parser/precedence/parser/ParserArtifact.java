@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.precedence.function.ArrayPrecedenceFunctions;
+import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
+import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import com.avispa.parser.precedence.grammar.NonTerminal;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.SymbolTable;
+import com.avispa.parser.precedence.grammar.Terminal;
+import com.avispa.parser.precedence.lexer.automaton.LexerAutomaton;
+import com.avispa.parser.precedence.table.PrecedenceMatrix;
+import com.avispa.parser.precedence.table.PrecedenceTable;
+import com.avispa.parser.precedence.table.PrecompiledPrecedenceTable;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UTFDataFormatException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Binary form of the parser with everything computed during parser creation: symbols, productions, lexer automaton,
+ * precedence matrix, precedence functions and handle automaton. Loading the artifact only interns the symbols again,
+ * precedence sets, table, functions and automata are not computed.
+ *
+ * Layout (big-endian, as written by {@link DataOutput}):
+ * <pre>
+ * magic, version, parser type
+ * grammar name, terminals (name, regex), non-terminals (name), productions (lhs id, rhs ids), start symbol id
+ * optional lexer automaton
+ * weak-precedence flags, precedence matrix
+ * optional precedence functions
+ * handle automaton (simple precedence parser only)
+ * </pre>
+ *
+ * @author Rafał Hiszpański
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ParserArtifact {
+    static final int MAGIC = 0x41505041; // APPA
+    static final int VERSION = 1;
+
+    private static final byte SIMPLE_PRECEDENCE = 1;
+    private static final byte OPERATOR_PRECEDENCE = 2;
+
+    /**
+     * Writes the parser to the stream. The stream is flushed but not closed.
+     * @param parser parser to write
+     * @param outputStream target stream
+     */
+    static void write(PrecedenceParser<?> parser, OutputStream outputStream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeByte(parser instanceof SimplePrecedenceParser ? SIMPLE_PRECEDENCE : OPERATOR_PRECEDENCE);
+
+        Grammar grammar = parser.grammar;
+        writeGrammar(grammar, output);
+
+        Optional<LexerAutomaton> lexerAutomaton = grammar.getLexerAutomaton();
+        output.writeBoolean(lexerAutomaton.isPresent());
+        if(lexerAutomaton.isPresent()) {
+            lexerAutomaton.get().writeTo(output);
+        }
+
+        PrecedenceTable table = parser.table;
+        output.writeBoolean(table.isWithWeakPrecedenceConflict());
+        output.writeBoolean(table.isWeakPrecedence());
+        table.getMatrix().writeTo(output);
+
+        ArrayPrecedenceFunctions functions = parser.getFunctions();
+        output.writeBoolean(null != functions);
+        if(null != functions) {
+            functions.writeTo(output);
+        }
+
+        if(parser instanceof SimplePrecedenceParser) {
+            ((SimplePrecedenceParser) parser).getHandleAutomaton().writeTo(output);
+        }
+
+        output.flush();
+    }
+
+    private static void writeGrammar(Grammar grammar, DataOutput output) throws IOException {
+        SymbolTable symbolTable = grammar.getSymbolTable();
+
+        output.writeUTF(grammar.getName());
+
+        output.writeInt(grammar.getTerminals().size());
+        for(Terminal terminal : grammar.getTerminals()) {
+            output.writeUTF(terminal.getName());
+            output.writeUTF(terminal.getRegex());
+        }
+
+        output.writeInt(grammar.getNonTerminals().size());
+        for(NonTerminal nonTerminal : grammar.getNonTerminals()) {
+            output.writeUTF(nonTerminal.getName());
+        }
+
+        output.writeInt(grammar.getProductions().size());
+        for(Production production : grammar.getProductions()) {
+            output.writeInt(symbolTable.getId(production.getLhs()));
+            output.writeInt(production.getRhs().size());
+            for(Symbol symbol : production.getRhs()) {
+                output.writeInt(symbolTable.getId(symbol));
+            }
+        }
+
+        output.writeInt(symbolTable.getId(grammar.getStart()));
+    }
+
+    /**
+     * Reads the parser from the stream. The stream is not closed.
+     * @param inputStream artifact content
+     * @return parser restored from the artifact
+     * @throws ParserCreationException when the input is not an artifact of supported version or its content is not
+     * consistent - all sizes and indexes are validated against the restored grammar, so the corrupted artifact is
+     * rejected while loading instead of failing during parsing
+     */
+    static PrecedenceParser<?> read(InputStream inputStream) throws IOException, ParserCreationException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+
+        if(input.readInt() != MAGIC) {
+            throw new ParserCreationException("Input is not a parser artifact");
+        }
+
+        int version = input.readInt();
+        if(version != VERSION) {
+            throw new ParserCreationException("Unsupported parser artifact version " + version + ", expected " + VERSION);
+        }
+
+        byte type = input.readByte();
+        if(type != SIMPLE_PRECEDENCE && type != OPERATOR_PRECEDENCE) {
+            throw new ParserCreationException("Unknown parser type " + type);
+        }
+
+        try {
+            return readParser(type, input);
+        } catch (EOFException e) {
+            throw new ParserCreationException("Parser artifact is truncated", e);
+        } catch (UTFDataFormatException | IncorrectGrammarException | IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException | ClassCastException e) {
+            throw new ParserCreationException("Parser artifact is corrupted", e);
+        }
+    }
+
+    private static PrecedenceParser<?> readParser(byte type, DataInput input) throws IOException, IncorrectGrammarException {
+        String name = input.readUTF();
+
+        List<Symbol> symbols = new ArrayList<>();
+
+        int terminalCount = readCount(input, "terminals");
+        Set<Terminal> terminals = new LinkedHashSet<>();
+        for(int i = 0; i < terminalCount; i++) {
+            Terminal terminal = Terminal.of(input.readUTF(), input.readUTF());
+            terminals.add(terminal);
+            symbols.add(terminal);
+        }
+
+        int nonTerminalCount = readCount(input, "non-terminals");
+        for(int i = 0; i < nonTerminalCount; i++) {
+            symbols.add(NonTerminal.of(input.readUTF()));
+        }
+
+        int productionCount = readCount(input, "productions");
+        List<Production> productions = new ArrayList<>();
+        for(int i = 0; i < productionCount; i++) {
+            NonTerminal lhs = (NonTerminal) symbols.get(input.readInt());
+            int rhsSize = readCount(input, "right-hand side symbols");
+            List<Symbol> rhs = new ArrayList<>();
+            for(int j = 0; j < rhsSize; j++) {
+                rhs.add(symbols.get(input.readInt()));
+            }
+            productions.add(Production.of(lhs, rhs));
+        }
+
+        NonTerminal start = (NonTerminal) symbols.get(input.readInt());
+
+        LexerAutomaton lexerAutomaton = input.readBoolean() ? LexerAutomaton.readFrom(input, new ArrayList<>(terminals)) : null;
+
+        Grammar grammar = ContextFreeGrammar.from(name, terminals, productions, start, lexerAutomaton);
+        verifySymbolTable(grammar.getSymbolTable(), symbols);
+
+        PrecedenceTable table = readTable(grammar, input);
+        ArrayPrecedenceFunctions functions = input.readBoolean() ? ArrayPrecedenceFunctions.readFrom(input, grammar.getSymbolTable()) : null;
+
+        if(type == SIMPLE_PRECEDENCE) {
+            return new SimplePrecedenceParser(grammar, table, functions, HandleAutomaton.readFrom(input, grammar));
+        } else {
+            return new OperatorPrecedenceParser(grammar, table, functions);
+        }
+    }
+
+    private static PrecedenceTable readTable(Grammar grammar, DataInput input) throws IOException {
+        boolean withWeakPrecedenceConflict = input.readBoolean();
+        boolean weakPrecedence = input.readBoolean();
+        return new PrecompiledPrecedenceTable(grammar, PrecedenceMatrix.readFrom(input, grammar.getSymbolTable().size()), withWeakPrecedenceConflict, weakPrecedence);
+    }
+
+    /**
+     * Counts are only checked for being non-negative. Collections are not preallocated with them, so the corrupted
+     * count fails on the end of input.
+     */
+    private static int readCount(DataInput input, String name) throws IOException {
+        int count = input.readInt();
+        if(count < 0) {
+            throw new IllegalArgumentException("Negative number of " + name + ": " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Matrix, functions and automata refer to symbols by identifiers, so restored grammar has to assign the same
+     * identifiers as the grammar used to write the artifact
+     */
+    private static void verifySymbolTable(SymbolTable symbolTable, List<Symbol> symbols) {
+        if(symbolTable.size() != symbols.size()) {
+            throw new IllegalArgumentException("Restored grammar has " + symbolTable.size() + " symbols, expected " + symbols.size());
+        }
+
+        for(int id = 0; id < symbols.size(); id++) {
+            if(!symbolTable.get(id).getName().equals(symbols.get(id).getName())) {
+                throw new IllegalArgumentException("Symbol " + symbols.get(id) + " has different identifier in restored grammar");
+            }
+        }
+    }
+}
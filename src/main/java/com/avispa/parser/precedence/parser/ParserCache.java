@@ -0,0 +1,266 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.Terminal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Thread-safe cache of parsers created by {@link ParserFactory}. Parsers are immutable, so single instance is
+ * returned to all callers asking for the parser of the same grammar. Grammars are identified by the fingerprint -
+ * SHA-256 hash of terminals (names and regular expressions in declaration order), productions (in declaration order)
+ * and start symbol. Grammar name is not a part of the fingerprint.
+ *
+ * The least recently used parser is evicted when the size limit is reached. When the directory is provided, created
+ * parsers are also written there as parser artifacts and read back on the memory miss, e.g. after a restart.
+ * Concurrent requests for the same missing parser wait for a single construction.
+ *
+ * @author Rafał Hiszpański
+ */
+@Slf4j
+public final class ParserCache {
+    private static final String ARTIFACT_EXTENSION = ".parser";
+
+    private final int maxSize;
+    private final Path directory;
+
+    private final Map<String, CompletableFuture<PrecedenceParser<?>>> parsers;
+
+    /**
+     * @param maxSize maximum number of parsers kept in memory
+     */
+    public ParserCache(int maxSize) {
+        this(maxSize, null);
+    }
+
+    /**
+     * @param maxSize maximum number of parsers kept in memory
+     * @param directory directory of parser artifacts or null to keep parsers in memory only
+     */
+    public ParserCache(int maxSize, Path directory) {
+        if(maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+
+        this.maxSize = maxSize;
+        this.directory = directory;
+        this.parsers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<PrecedenceParser<?>>> eldest) {
+                return size() > ParserCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return number of parsers kept in memory
+     */
+    public int size() {
+        synchronized (parsers) {
+            return parsers.size();
+        }
+    }
+
+    /**
+     * Removes all parsers from memory. Artifacts written to the directory are kept.
+     */
+    public void clear() {
+        synchronized (parsers) {
+            parsers.clear();
+        }
+    }
+
+    /**
+     * Returns cached parser or creates it using provided builder
+     * @param fingerprint grammar fingerprint, see {@link #fingerprint(Class, boolean, Grammar)}
+     * @param type type of the parser
+     * @param builder parser builder called on the cache miss
+     * @return parser
+     */
+    <P extends PrecedenceParser<?>> P get(String fingerprint, Class<P> type, ParserBuilder<P> builder) throws ParserCreationException {
+        CompletableFuture<PrecedenceParser<?>> future;
+        boolean owner = false;
+        synchronized (parsers) {
+            future = parsers.get(fingerprint);
+            if(null == future) {
+                future = new CompletableFuture<>();
+                parsers.put(fingerprint, future);
+                owner = true;
+            }
+        }
+
+        if(owner) {
+            try {
+                P parser = load(fingerprint, type, builder);
+                future.complete(parser);
+                return parser;
+            } catch (Throwable e) { // errors too, otherwise waiting callers would never be released
+                synchronized (parsers) {
+                    parsers.remove(fingerprint, future); // failures are not cached
+                }
+                future.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return type.cast(future.join());
+        } catch (CompletionException e) {
+            // waiting callers get the same exception as the caller creating the parser
+            Throwable cause = e.getCause();
+            if(cause instanceof ParserCreationException) {
+                throw (ParserCreationException) cause;
+            } else if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if(cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private <P extends PrecedenceParser<?>> P load(String fingerprint, Class<P> type, ParserBuilder<P> builder) throws ParserCreationException {
+        if(null == directory) {
+            return builder.build();
+        }
+
+        Path artifact = directory.resolve(fingerprint + ARTIFACT_EXTENSION);
+        if(Files.exists(artifact)) {
+            try (InputStream input = Files.newInputStream(artifact)) {
+                PrecedenceParser<?> parser = ParserArtifact.read(input);
+                if(type.isInstance(parser)) {
+                    return type.cast(parser);
+                }
+                log.warn("Artifact {} does not contain {}. Parser will be created again.", artifact, type.getSimpleName());
+            } catch (IOException | ParserCreationException e) {
+                log.warn("Can't read parser artifact {}. Parser will be created again. Reason: {}", artifact, e.getMessage());
+            }
+        }
+
+        P parser = builder.build();
+        write(parser, artifact);
+        return parser;
+    }
+
+    /**
+     * Writes the artifact to the temporary file first and then moves it to the target location, so readers never see
+     * partially written artifact
+     */
+    private void write(PrecedenceParser<?> parser, Path artifact) {
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, artifact.getFileName().toString(), ".tmp");
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                ParserArtifact.write(parser, output);
+            }
+            Files.move(temporary, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Can't write parser artifact {}. Reason: {}", artifact, e.getMessage());
+            deleteQuietly(temporary);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if(null != path) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Can't delete {}", path);
+            }
+        }
+    }
+
+    /**
+     * Calculates canonical hash of the grammar together with the parser configuration
+     * @param type type of the parser
+     * @param usePrecedenceFunctions true if precedence functions are used
+     * @param grammar grammar
+     * @return hex encoded SHA-256 hash
+     */
+    static String fingerprint(Class<? extends PrecedenceParser<?>> type, boolean usePrecedenceFunctions, Grammar grammar) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        try (DataOutputStream output = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            output.writeUTF(type.getName());
+            output.writeBoolean(usePrecedenceFunctions);
+
+            output.writeInt(grammar.getTerminals().size());
+            for(Terminal terminal : grammar.getTerminals()) {
+                output.writeUTF(terminal.getName());
+                output.writeUTF(terminal.getRegex());
+            }
+
+            output.writeInt(grammar.getProductions().size());
+            for(Production production : grammar.getProductions()) {
+                output.writeUTF(production.getLhs().getName());
+                output.writeInt(production.getRhs().size());
+                for(Symbol symbol : production.getRhs()) {
+                    output.writeBoolean(Terminal.isOf(symbol));
+                    output.writeUTF(symbol.getName());
+                }
+            }
+
+            output.writeUTF(grammar.getStart().getName());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // digest stream does not throw
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for(byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    interface ParserBuilder<P extends PrecedenceParser<?>> {
+        P build() throws ParserCreationException;
+    }
+}
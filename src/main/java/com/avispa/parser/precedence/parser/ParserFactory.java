@@ -24,6 +24,7 @@
 
 package com.avispa.parser.precedence.parser;
 
+import com.avispa.parser.precedence.function.ArrayPrecedenceFunctions;
 import com.avispa.parser.precedence.function.GraphPrecedenceFunctions;
 import com.avispa.parser.precedence.function.PrecedenceFunctions;
 import com.avispa.parser.precedence.function.PrecedenceFunctionsException;
@@ -39,6 +40,10 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * @author Rafał Hiszpański
  */
@@ -81,7 +86,7 @@ public class ParserFactory {
             if (!table.isWeakPrecedence()) {
                 if (validator.is(grammar)) {
                     if(usePrecedenceFunctions) {
-                        PrecedenceFunctions functions = getPrecedenceFunctions(table);
+                        PrecedenceFunctions functions = getPrecedenceFunctions(grammar, table);
                         return new OperatorPrecedenceParser(grammar, table, functions);
                     } else {
                         return new OperatorPrecedenceParser(grammar, table);
@@ -97,6 +102,21 @@ public class ParserFactory {
         }
     }
 
+    /**
+     * Returns operator-precedence parser from the cache or creates it, if the cache does not contain the parser for
+     * grammar with the same fingerprint.
+     *
+     * @param grammar formal grammar matching requirements for operator-precedence grammar
+     * @param usePrecedenceFunctions true to use precedence functions
+     * @param cache parsers cache
+     * @return operator-precedence parser instance shared with other callers
+     * @see #newOperatorPrecedenceParser(Grammar, boolean)
+     */
+    public static OperatorPrecedenceParser newOperatorPrecedenceParser(Grammar grammar, boolean usePrecedenceFunctions, ParserCache cache) throws ParserCreationException {
+        return cache.get(ParserCache.fingerprint(OperatorPrecedenceParser.class, usePrecedenceFunctions, grammar), OperatorPrecedenceParser.class,
+                () -> newOperatorPrecedenceParser(grammar, usePrecedenceFunctions));
+    }
+
     /**
      * Creates new simple precedence parser for grammar if it fulfills requirements of simple precedence grammar.
      * Precedence functions will be used if and only if the grammar is not a weak precedence grammar.
@@ -132,7 +152,7 @@ public class ParserFactory {
                         throw new ParserCreationException("Weak-precedence conflict detected but grammar is not weak-precedence");
                     }
                 } else if(usePrecedenceFunctions) {
-                    PrecedenceFunctions functions = getPrecedenceFunctions(table);
+                    PrecedenceFunctions functions = getPrecedenceFunctions(grammar, table);
                     return new SimplePrecedenceParser(grammar, table, functions);
                 } else {
                     return new SimplePrecedenceParser(grammar, table);
@@ -145,10 +165,67 @@ public class ParserFactory {
         }
     }
 
-    private static PrecedenceFunctions getPrecedenceFunctions(PrecedenceTable table) {
+    /**
+     * Returns simple precedence parser from the cache or creates it, if the cache does not contain the parser for
+     * grammar with the same fingerprint.
+     *
+     * @param grammar formal grammar matching requirements for simple precedence grammar
+     * @param usePrecedenceFunctions true to use precedence functions
+     * @param cache parsers cache
+     * @return simple precedence parser instance shared with other callers
+     * @see #newSimplePrecedenceParser(Grammar, boolean)
+     */
+    public static SimplePrecedenceParser newSimplePrecedenceParser(Grammar grammar, boolean usePrecedenceFunctions, ParserCache cache) throws ParserCreationException {
+        return cache.get(ParserCache.fingerprint(SimplePrecedenceParser.class, usePrecedenceFunctions, grammar), SimplePrecedenceParser.class,
+                () -> newSimplePrecedenceParser(grammar, usePrecedenceFunctions));
+    }
+
+    /**
+     * Writes the parser as a binary artifact, which can be loaded later without analysing the grammar again. Grammar
+     * symbols, precedence table, precedence functions, lexer automaton and handle automaton are stored. The stream is
+     * not closed.
+     *
+     * @param parser parser created by this factory
+     * @param output target stream
+     */
+    public static void writeParser(PrecedenceParser<?> parser, OutputStream output) throws IOException {
+        ParserArtifact.write(parser, output);
+    }
+
+    /**
+     * Loads simple precedence parser from the artifact written by {@link #writeParser(PrecedenceParser, OutputStream)}.
+     * The stream is not closed.
+     *
+     * @param input artifact content
+     * @return new simple precedence parser instance
+     */
+    public static SimplePrecedenceParser readSimplePrecedenceParser(InputStream input) throws IOException, ParserCreationException {
+        PrecedenceParser<?> parser = ParserArtifact.read(input);
+        if(parser instanceof SimplePrecedenceParser) {
+            return (SimplePrecedenceParser) parser;
+        }
+        throw new ParserCreationException("Artifact does not contain simple precedence parser");
+    }
+
+    /**
+     * Loads operator-precedence parser from the artifact written by {@link #writeParser(PrecedenceParser, OutputStream)}.
+     * The stream is not closed.
+     *
+     * @param input artifact content
+     * @return new operator-precedence parser instance
+     */
+    public static OperatorPrecedenceParser readOperatorPrecedenceParser(InputStream input) throws IOException, ParserCreationException {
+        PrecedenceParser<?> parser = ParserArtifact.read(input);
+        if(parser instanceof OperatorPrecedenceParser) {
+            return (OperatorPrecedenceParser) parser;
+        }
+        throw new ParserCreationException("Artifact does not contain operator-precedence parser");
+    }
+
+    private static PrecedenceFunctions getPrecedenceFunctions(Grammar grammar, PrecedenceTable table) {
         PrecedenceFunctions functions = null;
         try {
-            functions = new GraphPrecedenceFunctions(table);
+            functions = ArrayPrecedenceFunctions.of(new GraphPrecedenceFunctions(table), grammar.getSymbolTable());
         } catch (PrecedenceFunctionsException e) {
             log.warn("Precedence functions can't be calculated. Precedence table will be used instead.", e);
         }
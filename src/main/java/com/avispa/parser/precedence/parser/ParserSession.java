@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.lexer.Lexer;
+
+/**
+ * Parses input arriving in chunks, e.g. read from the network. Each chunk is lexed and parsed as far as possible and
+ * parser events are reported to the listener immediately. Only the unfinished lexeme at the end of the chunk is kept
+ * until the next chunk arrives.
+ *
+ * Session can't be reused. After the error or {@link #finish()} no more chunks are accepted.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class ParserSession {
+    private final PrecedenceParser<?> parser;
+    private final ParseListener listener;
+
+    private final Lexer lexer;
+    private final SymbolStack symbolStack;
+    private final Reduction reduction;
+
+    private boolean empty = true;
+    private boolean closed;
+
+    ParserSession(PrecedenceParser<?> parser, ParseListener listener, int maxLexemeLength) {
+        this.parser = parser;
+        this.listener = listener;
+
+        this.lexer = new Lexer(parser.grammar, true, maxLexemeLength); // input is surrounded by virtual boundary markers
+        this.symbolStack = new SymbolStack(parser.grammar.getSymbolTable());
+        this.reduction = new Reduction(parser.grammar, symbolStack);
+    }
+
+    /**
+     * Parses next chunk of the input. Chunk is copied, so the caller can reuse it (e.g. {@link java.nio.CharBuffer}).
+     * @param chunk input characters
+     */
+    public void feed(CharSequence chunk) throws LexerException, SyntaxException {
+        checkNotClosed();
+        if(chunk.length() == 0) {
+            return;
+        }
+
+        empty = false;
+        lexer.feed(chunk);
+        processAvailableLexemes();
+    }
+
+    /**
+     * Parses the rest of the input and closes the session
+     */
+    public void finish() throws LexerException, SyntaxException {
+        checkNotClosed();
+        lexer.finish();
+        if(!empty) { // empty input produces no events, the same as parsing an empty string
+            processAvailableLexemes();
+        }
+        closed = true;
+    }
+
+    private void processAvailableLexemes() throws LexerException, SyntaxException {
+        try {
+            while(lexer.hasNext()) {
+                parser.process(lexer.getNext(), symbolStack, reduction, listener);
+            }
+        } catch (LexerException | SyntaxException e) {
+            closed = true;
+            throw e;
+        }
+    }
+
+    private void checkNotClosed() {
+        if(closed) {
+            throw new IllegalStateException("Session is already closed");
+        }
+    }
+}
@@ -27,32 +27,52 @@ package com.avispa.parser.precedence.parser;
 
 import com.avispa.parser.Parser;
 import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.function.ArrayPrecedenceFunctions;
 import com.avispa.parser.precedence.function.PrecedenceFunctions;
 import com.avispa.parser.precedence.grammar.Grammar;
 import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.Terminal;
 import com.avispa.parser.precedence.lexer.Lexeme;
 import com.avispa.parser.precedence.lexer.Lexer;
-import com.avispa.parser.precedence.table.Precedence;
+import com.avispa.parser.precedence.table.PrecedenceMatrix;
 import com.avispa.parser.precedence.table.PrecedenceTable;
+import com.avispa.parser.trace.Tracing;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayDeque;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Deque;
 import java.util.List;
 
+/**
+ * Base of precedence parsers. Parser is immutable after construction - grammar, precedence table and functions are
+ * only read during parsing, and the lexer, stack and output are created for each parse call (or session). Single
+ * instance can be therefore shared between threads. {@link ParserSession} itself is not thread-safe.
+ *
+ * @author Rafał Hiszpański
+ */
 @Slf4j
 public abstract class PrecedenceParser<O> implements Parser<O> {
+    static final int READ_BUFFER_SIZE = 8192;
+
     protected final Grammar grammar;
 
     protected final PrecedenceTable table;
-    private final PrecedenceFunctions functions;
+    private final PrecedenceMatrix matrix;
+    private final ArrayPrecedenceFunctions functions;
+    private final int boundaryMarkerId;
 
     protected PrecedenceParser(Grammar grammar, PrecedenceTable table, PrecedenceFunctions functions) {
         this.grammar = grammar;
         this.table = table;
-        this.functions = functions;
+        this.matrix = null != table ? table.getMatrix() : null;
+        this.functions = null != functions ? ArrayPrecedenceFunctions.of(functions, grammar.getSymbolTable()) : null;
+        this.boundaryMarkerId = grammar.getSymbolTable().getId(Terminal.BOUNDARY_MARKER);
 
         if(log.isDebugEnabled()) {
             log.debug("Grammar used for parsing: ");
@@ -61,116 +81,278 @@ public abstract class PrecedenceParser<O> implements Parser<O> {
     }
 
     @Override
-    public List<O> parse(String input) throws LexerException, SyntaxException {
-        if(input.isEmpty()) {
+    public List<O> parse(CharSequence input) throws LexerException, SyntaxException {
+        if(input.length() == 0) {
             return List.of();
         }
-        input = "$" + input + "$";
 
-        Deque<Symbol> symbolStack = new ArrayDeque<>();
-        Lexer lexer = new Lexer(input, grammar);
+        List<O> output = createOutput();
+        parse(input, createCollector(output));
+
+        if(Tracing.ENABLED) {
+            Tracing.trace(PrecedenceParser.class, "Output: {}", output);
+        }
+
+        return toResult(output);
+    }
+
+    /**
+     * Parses the input and reports shifts and reductions to the listener as they happen. No output is collected.
+     * @param input input to parse
+     * @param listener listener receiving parser events
+     */
+    public void parse(CharSequence input, ParseListener listener) throws LexerException, SyntaxException {
+        if(input.length() == 0) {
+            return;
+        }
+
+        SymbolStack symbolStack = new SymbolStack(grammar.getSymbolTable());
+        Reduction reduction = new Reduction(grammar, symbolStack);
+        Lexer lexer = new Lexer(input, grammar, true); // input is surrounded by virtual boundary markers
 
-        List<O> output = new ArrayList<>();
-        
         while(lexer.hasCharactersLeft()) {
-            Symbol stackTop = symbolStack.peek();
-            Lexeme nextLexeme = lexer.peekNext();
+            process(lexer.getNext(), symbolStack, reduction, listener);
+        }
+    }
+
+    /**
+     * Creates session parsing the input provided in chunks. Lexer and stack state are kept between chunks, so
+     * lexemes spanning chunk boundaries are recognized correctly.
+     * @param listener listener receiving parser events
+     * @return new session
+     */
+    public ParserSession newSession(ParseListener listener) {
+        return newSession(listener, Lexer.DEFAULT_MAX_LEXEME_LENGTH);
+    }
 
-            log.trace("Stack top: {}, next lexeme: {}", stackTop, nextLexeme);
+    /**
+     * @param listener listener receiving parser events
+     * @param maxLexemeLength maximum length of the lexeme
+     * @return new session
+     * @see #newSession(ParseListener)
+     */
+    public ParserSession newSession(ParseListener listener, int maxLexemeLength) {
+        return new ParserSession(this, listener, maxLexemeLength);
+    }
+
+    /**
+     * Reads the input through fixed size buffer and parses it part by part. Memory used for the input does not
+     * depend on the input size.
+     */
+    @Override
+    public List<O> parse(Reader reader) throws IOException, LexerException, SyntaxException {
+        List<O> output = createOutput();
+        parse(reader, createCollector(output));
+
+        return toResult(output);
+    }
+
+    /**
+     * Parses the input read from the reader and reports parser events to the listener. The reader is not closed.
+     * @param reader input source
+     * @param listener listener receiving parser events
+     */
+    public void parse(Reader reader, ParseListener listener) throws IOException, LexerException, SyntaxException {
+        ParserSession session = newSession(listener);
+
+        CharBuffer window = CharBuffer.allocate(READ_BUFFER_SIZE);
+        while(reader.read(window) != -1) {
+            window.flip();
+            session.feed(window);
+            window.clear();
+        }
+
+        session.finish();
+    }
+
+    /**
+     * Parses the input read from the channel and reports parser events to the listener. The channel is not closed.
+     * @param channel input source
+     * @param charset input charset
+     * @param listener listener receiving parser events
+     */
+    public void parse(ReadableByteChannel channel, Charset charset, ParseListener listener) throws IOException, LexerException, SyntaxException {
+        parse(Channels.newReader(channel, charset), listener);
+    }
+
+    /**
+     * Performs all reductions possible before the lexeme and shifts it
+     * @param nextLexeme lexeme returned by the lexer
+     * @param symbolStack parser stack
+     * @param reduction reduction reused for all reductions of the parse
+     * @param listener listener receiving parser events
+     */
+    void process(Lexeme nextLexeme, SymbolStack symbolStack, Reduction reduction, ParseListener listener) throws SyntaxException {
+        int next = nextLexeme.getId();
+
+        while(true) {
+            int stackTop = symbolStack.peekId();
+
+            if(Tracing.ENABLED) {
+                Tracing.trace(PrecedenceParser.class, "Stack top: {}, next lexeme: {}", symbolStack.peek(), nextLexeme);
+            }
 
-            if(stackTop == null || precedenceLessThan(stackTop, nextLexeme) || precedenceEquals(stackTop, nextLexeme)) {
-                shift(lexer, symbolStack);
-            } else if(precedenceGreaterThan(stackTop, nextLexeme)){
-                reduce(output, symbolStack);
+            if(stackTop == Symbol.UNDEFINED_ID || precedenceLessThan(stackTop, next) || precedenceEquals(stackTop, next)) {
+                shift(nextLexeme, symbolStack, listener);
+                traceStack(symbolStack);
+                return;
+            } else if(precedenceGreaterThan(stackTop, next)){
+                reduce(symbolStack, reduction, listener);
+                traceStack(symbolStack);
             } else {
                 throw new SyntaxException("Syntax error at the vicinity of: " + nextLexeme.getValue());
             }
+        }
+    }
 
-            log.debug("Current stack state: {}", symbolStack);
+    /**
+     * Parsing path does not log. Trace events are emitted only if {@link Tracing#ENABLED} is set.
+     */
+    private void traceStack(SymbolStack symbolStack) {
+        if(Tracing.ENABLED) {
+            Tracing.trace(PrecedenceParser.class, "Current stack state: {}", symbolStack);
         }
+    }
 
-        log.trace("Output: {}", output);
-        
+    /**
+     * @return empty list collecting parser output
+     */
+    protected List<O> createOutput() {
+        return new ArrayList<>();
+    }
+
+    /**
+     * @param output collected parser output
+     * @return read-only parser output returned to the caller
+     */
+    protected List<O> toResult(List<O> output) {
         return Collections.unmodifiableList(output);
     }
 
-    private void shift(Lexer lexer, Deque<Symbol> symbolStack) throws LexerException {
-        Lexeme lexeme = lexer.getNext();
-        log.debug("SHIFT (< or = relation matched). Pushing {} on stack.", lexeme);
+    /**
+     * @param output list created by {@link #createOutput()}
+     * @return listener adding parser events to the output
+     */
+    protected abstract ParseListener createCollector(List<O> output);
+
+    private void shift(Lexeme lexeme, SymbolStack symbolStack, ParseListener listener) {
+        if(Tracing.ENABLED) {
+            Tracing.trace(PrecedenceParser.class, "SHIFT (< or = relation matched). Pushing {} on stack.", lexeme);
+        }
         symbolStack.push(lexeme);
+
+        if(lexeme.getId() != boundaryMarkerId) {
+            listener.shift(lexeme);
+        }
     }
 
-    protected abstract void reduce(List<O> output, Deque<Symbol> symbolStack) throws SyntaxException;
+    /**
+     * Reports the handle found on the top of the stack and replaces it with left-hand side of the production (if
+     * the parser recognizes productions)
+     */
+    private void reduce(SymbolStack symbolStack, Reduction reduction, ParseListener listener) throws SyntaxException {
+        if(Tracing.ENABLED) {
+            Tracing.trace(PrecedenceParser.class, "REDUCE (> relation matched).");
+        }
+        findHandle(symbolStack, reduction);
+
+        listener.reduce(reduction);
 
-    protected boolean precedenceLessThan(Symbol a, Symbol b) {
-        a = a.unwrap();
-        b = b.unwrap();
+        int start = reduction.getStart();
+        long startOffset = reduction.getStartOffset();
+        long endOffset = reduction.getEndOffset();
+
+        symbolStack.truncate(start);
+        if(reduction.hasProduction()) {
+            symbolStack.pushNonTerminal(reduction.getLhs().getId(), startOffset, endOffset); // push reduced value back onto the stack
+        }
+    }
 
+    /**
+     * Locates the handle on the top of the stack without modifying the stack
+     * @param symbolStack parser stack
+     * @param reduction reduction to fill with the handle position and production id
+     */
+    protected abstract void findHandle(SymbolStack symbolStack, Reduction reduction) throws SyntaxException;
+
+    /**
+     * All precedence checks work on symbol identifiers. Lexemes share identifiers with their terminals.
+     * @param a identifier of left symbol
+     * @param b identifier of right symbol
+     * @return true if a ⋖ b (or a ⩿ b)
+     */
+    protected boolean precedenceLessThan(int a, int b) {
         if(null != functions) {
             int fA = functions.getFFor(a);
             int gB = functions.getGFor(b);
 
-            if(log.isDebugEnabled()) {
-                log.debug("Precedence check: f({}) < g({}), is: {} {} {}", a, b, fA, getRelationCharacter(fA, gB), gB);
+            if(Tracing.ENABLED) {
+                Tracing.trace(PrecedenceParser.class, "Precedence check: f({}) < g({}), is: {} {} {}", symbol(a), symbol(b), fA, getRelationCharacter(fA, gB), gB);
             }
 
-            return fA < gB;
+            return fA < gB && fA != PrecedenceFunctions.NO_RELATION && gB != PrecedenceFunctions.NO_RELATION;
         } else {
-            Precedence precedence = getPrecedence(a, b, Precedence.LESS_THAN);
-
-            return Precedence.LESS_THAN.equals(precedence) || Precedence.LESS_THAN_OR_EQUALS.equals(precedence);
+            return matrixPrecedence(a, b, PrecedenceMatrix.LESS_THAN);
         }
     }
 
-    protected boolean precedenceGreaterThan(Symbol a, Symbol b) {
-        a = a.unwrap();
-        b = b.unwrap();
-
+    protected boolean precedenceGreaterThan(int a, int b) {
         if(null != functions) {
             int fA = functions.getFFor(a);
             int gB = functions.getGFor(b);
 
-            if(log.isDebugEnabled()) {
-                log.debug("Precedence check: f({}) > g({}), is: {} {} {}", a, b, fA, getRelationCharacter(fA, gB), gB);
+            if(Tracing.ENABLED) {
+                Tracing.trace(PrecedenceParser.class, "Precedence check: f({}) > g({}), is: {} {} {}", symbol(a), symbol(b), fA, getRelationCharacter(fA, gB), gB);
             }
 
-            return fA > gB;
+            return fA > gB && fA != PrecedenceFunctions.NO_RELATION && gB != PrecedenceFunctions.NO_RELATION;
         } else {
-            Precedence precedence = getPrecedence(a, b, Precedence.GREATER_THAN);
-
-            return Precedence.GREATER_THAN.equals(precedence);
+            return matrixPrecedence(a, b, PrecedenceMatrix.GREATER_THAN);
         }
     }
 
-    protected boolean precedenceEquals(Symbol a, Symbol b) {
-        a = a.unwrap();
-        b = b.unwrap();
-
+    protected boolean precedenceEquals(int a, int b) {
         if(null != functions) {
             int fA = functions.getFFor(a);
             int gB = functions.getGFor(b);
 
-            if(log.isDebugEnabled()) {
-                log.debug("Precedence check: f({}) = g({}), is: {} {} {}", a, b, fA, getRelationCharacter(fA, gB), gB);
+            if(Tracing.ENABLED) {
+                Tracing.trace(PrecedenceParser.class, "Precedence check: f({}) = g({}), is: {} {} {}", symbol(a), symbol(b), fA, getRelationCharacter(fA, gB), gB);
             }
-            return fA == gB;
-        } else {
-            Precedence precedence = getPrecedence(a, b, Precedence.EQUALS);
 
-            return Precedence.EQUALS.equals(precedence) || Precedence.LESS_THAN_OR_EQUALS.equals(precedence);
+            return fA == gB && fA != PrecedenceFunctions.NO_RELATION && gB != PrecedenceFunctions.NO_RELATION;
+        } else {
+            return matrixPrecedence(a, b, PrecedenceMatrix.EQUALS);
         }
     }
 
-    private Precedence getPrecedence(Symbol a, Symbol b, Precedence expected) {
-        Precedence precedence = table.get(a, b);
+    private boolean matrixPrecedence(int a, int b, byte expected) {
+        byte relation = matrix.get(a, b);
 
-        if(null == precedence) {
-            log.warn("Precedence not found");
-        } else {
-            log.debug("Precedence check: {} {} {}, is: {} {} {}", a, expected, b, a, precedence, b);
+        if(Tracing.ENABLED) {
+            if(PrecedenceMatrix.NONE == relation) {
+                Tracing.trace(PrecedenceParser.class, "Precedence not found for {} and {}", symbol(a), symbol(b));
+            } else {
+                Tracing.trace(PrecedenceParser.class, "Precedence check: {} and {}, is: {} {} {}", symbol(a), symbol(b), symbol(a), matrix.getPrecedence(a, b), symbol(b));
+            }
         }
 
-        return precedence;
+        return (relation & expected) != 0;
+    }
+
+    /**
+     * @return precedence functions or null if the precedence table is used
+     */
+    ArrayPrecedenceFunctions getFunctions() {
+        return functions;
+    }
+
+    /**
+     * @param id symbol identifier
+     * @return grammar symbol with provided identifier
+     */
+    protected final Symbol symbol(int id) {
+        return grammar.getSymbolTable().get(id);
     }
 
     private char getRelationCharacter(int a, int b) {
@@ -0,0 +1,110 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.grammar.Symbol;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Output of the simple precedence parser. Reductions are recorded as production ids and right-hand side symbols copied
+ * into a single flat buffer. Concrete productions (with lexemes instead of terminals) are created only when they are
+ * accessed.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class ProductionList extends AbstractList<Production> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Grammar grammar;
+
+    private int[] productionIds = new int[INITIAL_CAPACITY];
+    private int[] rhsOffsets = new int[INITIAL_CAPACITY + 1];
+    private Symbol[] rhsSymbols = new Symbol[INITIAL_CAPACITY];
+    private int size;
+
+    ProductionList(Grammar grammar) {
+        this.grammar = grammar;
+    }
+
+    /**
+     * Records reduction of the handle
+     * @param reduction reduction reported by the parser
+     */
+    void add(Reduction reduction) {
+        int length = reduction.size();
+        if(size == productionIds.length) {
+            productionIds = Arrays.copyOf(productionIds, size * 2);
+            rhsOffsets = Arrays.copyOf(rhsOffsets, size * 2 + 1);
+        }
+
+        int offset = rhsOffsets[size];
+        if(offset + length > rhsSymbols.length) {
+            rhsSymbols = Arrays.copyOf(rhsSymbols, Math.max(rhsSymbols.length * 2, offset + length));
+        }
+        reduction.copyTo(rhsSymbols, offset);
+
+        productionIds[size] = reduction.getProductionId();
+        rhsOffsets[size + 1] = offset + length;
+        size++;
+    }
+
+    /**
+     * @param index index of the reduction
+     * @return id of the grammar production used in the reduction
+     */
+    public int getProductionId(int index) {
+        checkIndex(index);
+        return productionIds[index];
+    }
+
+    /**
+     * Creates concrete production with lexemes on the right-hand side
+     * @param index index of the reduction
+     * @return concrete production
+     */
+    @Override
+    public Production get(int index) {
+        checkIndex(index);
+
+        Symbol[] rhs = Arrays.copyOfRange(rhsSymbols, rhsOffsets[index], rhsOffsets[index + 1]);
+        return Production.of(grammar.getProduction(productionIds[index]).getLhs(), Collections.unmodifiableList(Arrays.asList(rhs)));
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
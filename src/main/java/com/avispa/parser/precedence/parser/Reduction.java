@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.NonTerminal;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.grammar.Symbol;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Handle reduced by the parser and reported to {@link ParseListener}. It is a view of the parser stack, so the same
+ * instance is reused for all reductions of the parse and its content is valid only during the listener call. Use
+ * {@link #toProduction()} to keep it for later.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class Reduction {
+    /**
+     * Production id of reductions made by parsers, which do not recognize productions (e.g. operator precedence parser)
+     */
+    public static final int NO_PRODUCTION = -1;
+
+    private final Grammar grammar;
+    private final SymbolStack symbolStack;
+
+    private int productionId = NO_PRODUCTION;
+    private int start;
+    private int length;
+
+    Reduction(Grammar grammar, SymbolStack symbolStack) {
+        this.grammar = grammar;
+        this.symbolStack = symbolStack;
+    }
+
+    /**
+     * @param productionId id of the production used for reduction or {@link #NO_PRODUCTION}
+     * @param start position of the first handle symbol on the stack
+     * @param length length of the handle
+     */
+    void set(int productionId, int start, int length) {
+        this.productionId = productionId;
+        this.start = start;
+        this.length = length;
+    }
+
+    int getStart() {
+        return start;
+    }
+
+    public int getProductionId() {
+        return productionId;
+    }
+
+    public boolean hasProduction() {
+        return productionId != NO_PRODUCTION;
+    }
+
+    /**
+     * @return left-hand side of the production or null if the production is unknown
+     */
+    public NonTerminal getLhs() {
+        return hasProduction() ? grammar.getProduction(productionId).getLhs() : null;
+    }
+
+    /**
+     * @return number of symbols in the handle
+     */
+    public int size() {
+        return length;
+    }
+
+    /**
+     * @param index index of the symbol in the handle, counting from the left
+     * @return symbol identifier
+     */
+    public int getSymbolId(int index) {
+        return symbolStack.getId(start + checkIndex(index));
+    }
+
+    /**
+     * @param index index of the symbol in the handle, counting from the left
+     * @return lexeme or non-terminal
+     */
+    public Symbol getSymbol(int index) {
+        return symbolStack.get(start + checkIndex(index));
+    }
+
+    /**
+     * @return position of the first input character covered by the handle
+     */
+    public long getStartOffset() {
+        return symbolStack.getStartOffset(start);
+    }
+
+    /**
+     * @return position right after the last input character covered by the handle
+     */
+    public long getEndOffset() {
+        return symbolStack.getEndOffset(start + length - 1);
+    }
+
+    /**
+     * Creates concrete production with lexemes on the right-hand side
+     * @return concrete production
+     * @throws IllegalStateException when the production is unknown
+     */
+    public Production toProduction() {
+        if(!hasProduction()) {
+            throw new IllegalStateException("Reduction was not made using grammar production");
+        }
+
+        Symbol[] rhs = new Symbol[length];
+        copyTo(rhs, 0);
+        return Production.of(getLhs(), Collections.unmodifiableList(Arrays.asList(rhs)));
+    }
+
+    void copyTo(Symbol[] target, int targetPosition) {
+        symbolStack.copyTo(start, length, target, targetPosition);
+    }
+
+    private int checkIndex(int index) {
+        if(index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + length);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(hasProduction() ? getLhs() : "?").append(" ->");
+        for(int i = 0; i < length; i++) {
+            sb.append(' ').append(getSymbol(i));
+        }
+        return sb.toString();
+    }
+}
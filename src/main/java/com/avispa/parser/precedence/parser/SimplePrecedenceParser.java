@@ -25,113 +25,108 @@
 package com.avispa.parser.precedence.parser;
 
 
-import com.avispa.parser.misc.tree.TreeNode;
 import com.avispa.parser.precedence.function.PrecedenceFunctions;
 import com.avispa.parser.precedence.grammar.Grammar;
-import com.avispa.parser.precedence.grammar.NonTerminal;
 import com.avispa.parser.precedence.grammar.Production;
 import com.avispa.parser.precedence.grammar.Symbol;
 import com.avispa.parser.precedence.table.PrecedenceTable;
+import com.avispa.parser.trace.Tracing;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.Deque;
 import java.util.List;
 
 @Slf4j
 public class SimplePrecedenceParser extends PrecedenceParser<Production> {
-    private final TreeNode<Symbol> productionsTree;
+    private final HandleAutomaton handleAutomaton;
 
     SimplePrecedenceParser(Grammar grammar, PrecedenceTable table) {
         this(grammar, table, null);
     }
 
     SimplePrecedenceParser(Grammar grammar, PrecedenceTable table, PrecedenceFunctions functions) {
+        this(grammar, table, functions, HandleAutomaton.compile(grammar.getProductions(), grammar.getSymbolTable()));
+    }
+
+    SimplePrecedenceParser(Grammar grammar, PrecedenceTable table, PrecedenceFunctions functions, HandleAutomaton handleAutomaton) {
         super(grammar, table, functions);
 
-        this.productionsTree =  ProductionsTreeBuilder.build(grammar.getProductions());
+        this.handleAutomaton = handleAutomaton;
+
+        if(log.isDebugEnabled()) {
+            ProductionsTreeBuilder.build(grammar.getProductions()); // prints productions tree
+        }
+    }
+
+    HandleAutomaton getHandleAutomaton() {
+        return handleAutomaton;
+    }
+
+    @Override
+    protected List<Production> createOutput() {
+        return new ProductionList(grammar);
+    }
+
+    /**
+     * Output is returned as {@link ProductionList}, which is read-only already
+     */
+    @Override
+    protected List<Production> toResult(List<Production> output) {
+        return output;
     }
 
     @Override
-    protected void reduce(List<Production> output, Deque<Symbol> symbolStack) throws SyntaxException {
-        log.debug("REDUCE (> relation matched).");
+    protected ParseListener createCollector(List<Production> output) {
+        ProductionList productions = (ProductionList) output;
+        return new ParseListener() {
+            @Override
+            public void reduce(Reduction reduction) {
+                productions.add(reduction);
+            }
+        };
+    }
+
+    @Override
+    protected void findHandle(SymbolStack symbolStack, Reduction reduction) throws SyntaxException {
         try {
-            doReduce(output, symbolStack);
+            doFindHandle(symbolStack, reduction);
         } catch (ReductionException e){
             throw new SyntaxException("No matching production: " + e.getMessage());
         }
     }
 
-    private void doReduce(List<Production> output, Deque<Symbol> symbolStack) {
-        Symbol fromStack;
-        Symbol stackTop;
-        TreeNode<Symbol> currentNode = productionsTree;
-        List<Symbol> rhs = new ArrayList<>();
+    /**
+     * Reads the handle from the top of the stack without popping it and finds the production matching it.
+     */
+    private void doFindHandle(SymbolStack symbolStack, Reduction reduction) {
+        int fromStack = Symbol.UNDEFINED_ID;
+        int stackTop;
+        int state = HandleAutomaton.ROOT;
+        int position = symbolStack.size();
 
         do {
-            fromStack = symbolStack.pop();
-            stackTop = symbolStack.peek();
-            if(null == stackTop) {
+            int previous = fromStack;
+            position--;
+            fromStack = symbolStack.getId(position);
+            stackTop = symbolStack.getId(position - 1);
+            if(Symbol.UNDEFINED_ID == stackTop) {
                 throw new ReductionException("Stack is empty. At least boundary marker is expected to be left");
             }
 
-            rhs.add(0, fromStack); // add always to the beginning so there is no need to reverse list later
-
-            Symbol terminal = fromStack.unwrap();
-            Symbol currentSymbol = currentNode.getValue();
-
-            currentNode = currentNode.getChild(terminal)
-                    .orElseThrow(() -> {
-                        throw new ReductionException("There is no production with [" + terminal + ", " + currentSymbol + "] symbols next to each other.");
-                    });
-        } while (table.isWeakPrecedence() ? currentNode.hasNonLeafChildOf(stackTop.unwrap()) : !precedenceLessThan(stackTop, fromStack));
-
-        matchProduction(currentNode, symbolStack, output, rhs);
-    }
+            state = handleAutomaton.transition(state, fromStack);
+            if(HandleAutomaton.NO_STATE == state) {
+                throw new ReductionException("There is no production with [" + symbol(fromStack) + ", " + (Symbol.UNDEFINED_ID != previous ? symbol(previous) : "<root>") + "] symbols next to each other.");
+            }
+        } while (table.isWeakPrecedence() ? handleAutomaton.hasTransition(state, stackTop) : !precedenceLessThan(stackTop, fromStack));
 
-    /**
-     * Finds matching production, left-hand non-terminal is pushed on the symbol stack for further reduction. Production
-     * is set to output in its concrete form (lexemes instead of terminals)
-     *
-     * @param node current node should point to the first symbol in found production rhs
-     * @param symbolStack stack of symbols to parse
-     * @param output productions output
-     * @param rhs parsed right-hand side of production
-     */
-    private void matchProduction(TreeNode<Symbol> node, Deque<Symbol> symbolStack, List<Production> output, List<Symbol> rhs) {
-        node.findClosestLeaf()
-                .map(ProductionTreeNode.class::cast)
-                .ifPresentOrElse(
-                        leaf -> {
-                            NonTerminal lhs = (NonTerminal)leaf.getValue();
-
-                            symbolStack.push(lhs); // push reduced value back onto the stack
-
-                            Production concreteProduction = getConcreteProduction(lhs, rhs, leaf.getProductionId());
-                            output.add(concreteProduction);
-                        },
-                        () -> {
-                            throw new ReductionException("Direct leaf couldn't be found for " + node.getValue());
-                        });
-    }
+        int productionId = handleAutomaton.getProduction(state);
+        if(HandleAutomaton.NO_PRODUCTION == productionId) {
+            throw new ReductionException("Direct leaf couldn't be found for " + symbol(fromStack));
+        }
 
-    /**
-     * Builds concrete production from production tree leaf and list of right-hand side symbol obtained during parsing.
-     * Concrete production is a production with exact lexemes instead of terminals.
-     *
-     * @param lhs left-hand side of found production
-     * @param rhs right-hand side of found production with lexemes instead of terminals
-     * @param productionId id of the production obtained from production tree, currently used only for debug purposes
-     * @return
-     */
-    private Production getConcreteProduction(NonTerminal lhs, List<Symbol> rhs, int productionId) {
-        if (log.isDebugEnabled()) {
-            Production production = grammar.getProduction(productionId);
-            log.debug("Production found: {} (number: {})", productionId, production);
+        if(Tracing.ENABLED) {
+            Tracing.trace(SimplePrecedenceParser.class, "Production found: {} (number: {})", grammar.getProduction(productionId), productionId);
         }
 
-        Production concreteProduction = Production.of(lhs, rhs);
-        log.debug("Production with lexemes included: {}", concreteProduction);
-        return concreteProduction;
+        reduction.set(productionId, position, symbolStack.size() - position);
     }
 }
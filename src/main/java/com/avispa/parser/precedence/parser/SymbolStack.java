@@ -0,0 +1,178 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.SymbolTable;
+import com.avispa.parser.precedence.lexer.Lexeme;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Parser stack kept in parallel primitive arrays. Each entry holds the symbol identifier and the index of its lexeme
+ * in the lexeme buffer ({@link #NO_LEXEME} for non-terminals) together with the range of input covered by the
+ * symbol. Positions are counted from the bottom of the stack, so
+ * a handle can be described as a slice of the stack without popping it.
+ *
+ * @author Rafał Hiszpański
+ */
+final class SymbolStack {
+    static final int NO_LEXEME = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final SymbolTable symbolTable;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] lexemeIndexes = new int[INITIAL_CAPACITY];
+    private long[] startOffsets = new long[INITIAL_CAPACITY];
+    private long[] endOffsets = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private Lexeme[] lexemes = new Lexeme[INITIAL_CAPACITY];
+    private int lexemeCount;
+
+    SymbolStack(SymbolTable symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    void push(Lexeme lexeme) {
+        if(lexemeCount == lexemes.length) {
+            lexemes = Arrays.copyOf(lexemes, lexemeCount * 2);
+        }
+        lexemes[lexemeCount] = lexeme;
+
+        push(lexeme.getId(), lexemeCount++, lexeme.getOffset(), lexeme.getEndOffset());
+    }
+
+    /**
+     * @param id identifier of non-terminal
+     * @param startOffset position of the first input character covered by the non-terminal
+     * @param endOffset position right after the last input character covered by the non-terminal
+     */
+    void pushNonTerminal(int id, long startOffset, long endOffset) {
+        push(id, NO_LEXEME, startOffset, endOffset);
+    }
+
+    private void push(int id, int lexemeIndex, long startOffset, long endOffset) {
+        if(size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            lexemeIndexes = Arrays.copyOf(lexemeIndexes, size * 2);
+            startOffsets = Arrays.copyOf(startOffsets, size * 2);
+            endOffsets = Arrays.copyOf(endOffsets, size * 2);
+        }
+        ids[size] = id;
+        lexemeIndexes[size] = lexemeIndex;
+        startOffsets[size] = startOffset;
+        endOffsets[size] = endOffset;
+        size++;
+    }
+
+    /**
+     * @return identifier of the symbol on the top of the stack or {@link Symbol#UNDEFINED_ID} if stack is empty
+     */
+    int peekId() {
+        return getId(size - 1);
+    }
+
+    /**
+     * @param index position counting from the bottom of the stack
+     * @return identifier of the symbol at provided position or {@link Symbol#UNDEFINED_ID} if index is negative
+     */
+    int getId(int index) {
+        return index < 0 ? Symbol.UNDEFINED_ID : ids[index];
+    }
+
+    /**
+     * @return symbol on the top of the stack or null if stack is empty
+     */
+    Symbol peek() {
+        return get(size - 1);
+    }
+
+    /**
+     * @param index position counting from the bottom of the stack
+     * @return lexeme or non-terminal at provided position or null if index is negative
+     */
+    Symbol get(int index) {
+        if(index < 0) {
+            return null;
+        }
+
+        int lexemeIndex = lexemeIndexes[index];
+        return lexemeIndex == NO_LEXEME ? symbolTable.get(ids[index]) : lexemes[lexemeIndex];
+    }
+
+    long getStartOffset(int index) {
+        return startOffsets[index];
+    }
+
+    long getEndOffset(int index) {
+        return endOffsets[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all symbols above provided size. Lexemes of removed symbols are released from the buffer.
+     * @param newSize number of symbols left on the stack
+     */
+    void truncate(int newSize) {
+        for(int i = newSize; i < size; i++) {
+            if(lexemeIndexes[i] != NO_LEXEME) {
+                int newLexemeCount = lexemeIndexes[i];
+                Arrays.fill(lexemes, newLexemeCount, lexemeCount, null);
+                lexemeCount = newLexemeCount;
+                break; // lexemes above were pushed later, so they are already released
+            }
+        }
+        size = newSize;
+    }
+
+    /**
+     * Copies slice of the stack as symbols
+     * @param from position of first copied symbol
+     * @param length number of copied symbols
+     * @param target target array
+     * @param targetPosition position in target array
+     */
+    void copyTo(int from, int length, Symbol[] target, int targetPosition) {
+        for(int i = 0; i < length; i++) {
+            target[targetPosition + i] = get(from + i);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for(int i = size - 1; i >= 0; i--) { // top first
+            joiner.add(String.valueOf(get(i)));
+        }
+        return joiner.toString();
+    }
+}
@@ -24,7 +24,6 @@
 
 package com.avispa.parser.precedence.table;
 
-import com.avispa.parser.misc.ListUtil;
 import com.avispa.parser.precedence.grammar.Grammar;
 import com.avispa.parser.precedence.grammar.NonTerminal;
 import com.avispa.parser.precedence.grammar.Production;
@@ -34,11 +33,8 @@ import com.avispa.parser.precedence.table.set.FirstOpSets;
 import com.avispa.parser.precedence.table.set.LastOpSets;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
-import org.apache.commons.lang3.tuple.Triple;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * @author Rafał Hiszpański
@@ -47,48 +43,52 @@ import java.util.Map;
 @Slf4j
 public class OperatorPrecedenceTable extends PrecedenceTable {
     public OperatorPrecedenceTable(Grammar grammar) throws PrecedenceTableException {
-        super(grammar, new FirstOpSets(grammar), new LastOpSets(grammar));
+        super(grammar, new Relations(grammar));
     }
 
-    @Override
-    protected final Map<Pair<Symbol, Symbol>, Precedence> construct(List<Production> productions) {
-        Map<Pair<Symbol, Symbol>, Precedence> result = super.construct(productions);
-
-        // X ≐ Y when XZY (terminal, non-terminal, terminal)
-        addEqualsForTriple(productions, result);
+    private static final class Relations extends PrecedenceRelations {
+        private Relations(Grammar grammar) {
+            super(grammar, new FirstOpSets(grammar), new LastOpSets(grammar));
+        }
 
-        return result;
-    }
+        @Override
+        protected void construct(List<Production> productions) {
+            super.construct(productions);
 
-    @Override
-    protected void addRelations(Pair<Symbol, Symbol> currentPair, Map<Pair<Symbol, Symbol>, Precedence> result) {
-        var left = currentPair.getLeft();
-        var right = currentPair.getRight();
+            // X ≐ Y when XZY (terminal, non-terminal, terminal)
+            addEqualsForTriple(productions);
+        }
 
-        if(Terminal.isOf(left) && Terminal.isOf(right)) {
-            // X ≐ Y when XY (terminal, terminal)
-            addEqualsRelation(currentPair, result);
-        } else if(Terminal.isOf(left) && NonTerminal.isOf(right)) {
-            // X ⋖ FIRST_OP(Y) when XY (terminal, non-terminal)
-            addLessThanRelation(currentPair, result);
-        } else if(NonTerminal.isOf(left) && Terminal.isOf(right)) {
-            // LAST_OP(Y) ⋗ X when YX (non-terminal, terminal)
-            addGreaterThanRelation(currentPair, result);
-        } else {
-            throw new RelationException("Grammar is not an operator grammar as adjacent non-terminals were found");
+        @Override
+        protected void addRelations(Symbol left, Symbol right) {
+            if(Terminal.isOf(left) && Terminal.isOf(right)) {
+                // X ≐ Y when XY (terminal, terminal)
+                addEqualsRelation(left, right);
+            } else if(Terminal.isOf(left) && NonTerminal.isOf(right)) {
+                // X ⋖ FIRST_OP(Y) when XY (terminal, non-terminal)
+                addLessThanRelation(left, right);
+            } else if(NonTerminal.isOf(left) && Terminal.isOf(right)) {
+                // LAST_OP(Y) ⋗ X when YX (non-terminal, terminal)
+                addGreaterThanRelation(left, right);
+            } else {
+                throw new RelationException("Grammar is not an operator grammar as adjacent non-terminals were found");
+            }
         }
-    }
 
-    private void addEqualsForTriple(List<Production> productions, Map<Pair<Symbol, Symbol>, Precedence> result) {
-        productions.stream()
-                .map(Production::getRhs)
-                .flatMap(rhs -> ListUtil.sliding(rhs, 3))
-                .map(window -> Triple.of(window.get(0), window.get(1), window.get(2)))
-                .forEach(triple -> {
-                    log.debug("Sliding triple: {}", triple);
-                    if(Terminal.isOf(triple.getLeft()) && NonTerminal.isOf(triple.getMiddle()) && Terminal.isOf(triple.getRight())) {
-                        addEqualsRelation(Pair.of(triple.getLeft(), triple.getRight()), result);
+        private void addEqualsForTriple(List<Production> productions) {
+            for(Production production : productions) {
+                List<Symbol> rhs = production.getRhs();
+                for(int i = 2; i < rhs.size(); i++) {
+                    Symbol left = rhs.get(i - 2);
+                    Symbol middle = rhs.get(i - 1);
+                    Symbol right = rhs.get(i);
+
+                    log.debug("Sliding triple: ({},{},{})", left, middle, right);
+                    if(Terminal.isOf(left) && NonTerminal.isOf(middle) && Terminal.isOf(right)) {
+                        addEqualsRelation(left, right);
                     }
-                });
+                }
+            }
+        }
     }
 }
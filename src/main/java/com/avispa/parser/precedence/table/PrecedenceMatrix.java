@@ -0,0 +1,155 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.table;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact form of the precedence table. Relations are stored in a flat byte array indexed by symbol identifiers, so
+ * a precedence check is a single array load. Relations are encoded as bit flags - ⩿ has both ⋖ and ≐ bits set.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class PrecedenceMatrix {
+    public static final byte NONE = 0;
+    public static final byte LESS_THAN = 1;
+    public static final byte EQUALS = 1 << 1;
+    public static final byte LESS_THAN_OR_EQUALS = LESS_THAN | EQUALS;
+    public static final byte GREATER_THAN = 1 << 2;
+
+    private final byte[] relations;
+    private final int size;
+
+    PrecedenceMatrix(int size) {
+        this.size = size;
+        this.relations = new byte[size * size];
+    }
+
+    /**
+     * Sets relation between symbols. Used only while the table is constructed.
+     */
+    void set(int a, int b, Precedence precedence) {
+        relations[a * size + b] = encode(precedence);
+    }
+
+    /**
+     * Get encoded relation between symbols
+     * @param a identifier of left symbol
+     * @param b identifier of right symbol
+     * @return relation flags or {@link #NONE}
+     */
+    public byte get(int a, int b) {
+        return relations[a * size + b];
+    }
+
+    public boolean isLessThan(int a, int b) {
+        return (get(a, b) & LESS_THAN) != 0;
+    }
+
+    public boolean isEqual(int a, int b) {
+        return (get(a, b) & EQUALS) != 0;
+    }
+
+    public boolean isGreaterThan(int a, int b) {
+        return (get(a, b) & GREATER_THAN) != 0;
+    }
+
+    /**
+     * Get relation between symbols
+     * @param a identifier of left symbol
+     * @param b identifier of right symbol
+     * @return precedence or null if there is no relation
+     */
+    public Precedence getPrecedence(int a, int b) {
+        return decode(get(a, b));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Writes the matrix in the form read by {@link #readFrom(DataInput, int)}
+     * @param output binary output
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeInt(size);
+        output.write(relations);
+    }
+
+    /**
+     * @param input binary input
+     * @param size expected number of symbols
+     * @return matrix written by {@link #writeTo(DataOutput)}
+     * @throws IllegalArgumentException when the matrix size is different than expected or it contains unknown relation
+     */
+    public static PrecedenceMatrix readFrom(DataInput input, int size) throws IOException {
+        int storedSize = input.readInt();
+        if(storedSize != size) {
+            throw new IllegalArgumentException("Matrix size " + storedSize + " does not match number of grammar symbols " + size);
+        }
+
+        PrecedenceMatrix matrix = new PrecedenceMatrix(size);
+        input.readFully(matrix.relations);
+        for(byte relation : matrix.relations) {
+            if((relation & ~(LESS_THAN | EQUALS | GREATER_THAN)) != 0) {
+                throw new IllegalArgumentException("Unknown relation " + relation);
+            }
+        }
+        return matrix;
+    }
+
+    private static byte encode(Precedence precedence) {
+        switch(precedence) {
+            case LESS_THAN:
+                return LESS_THAN;
+            case LESS_THAN_OR_EQUALS:
+                return LESS_THAN_OR_EQUALS;
+            case EQUALS:
+                return EQUALS;
+            case GREATER_THAN:
+                return GREATER_THAN;
+            default:
+                throw new IllegalArgumentException("Unknown precedence: " + precedence);
+        }
+    }
+
+    private static Precedence decode(byte relation) {
+        switch(relation) {
+            case LESS_THAN:
+                return Precedence.LESS_THAN;
+            case LESS_THAN_OR_EQUALS:
+                return Precedence.LESS_THAN_OR_EQUALS;
+            case EQUALS:
+                return Precedence.EQUALS;
+            case GREATER_THAN:
+                return Precedence.GREATER_THAN;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.table;
+
+import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.SymbolTable;
+import com.avispa.parser.precedence.table.set.FirstSets;
+import com.avispa.parser.precedence.table.set.PrecedenceSets;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Computes relations between grammar symbols into the {@link PrecedenceMatrix}. Subclasses decide which relations
+ * are added for each pair of adjacent symbols.
+ *
+ * @author Rafał Hiszpański
+ */
+@Slf4j
+abstract class PrecedenceRelations {
+    private final SymbolTable symbolTable;
+    private final PrecedenceMatrix matrix;
+
+    private final PrecedenceSets firstPrecedenceSets; // FIRST_OP/FIRST_ALL
+    private final PrecedenceSets lastPrecedenceSets; // LAST_OP/LAST_ALL
+    private final PrecedenceSets firstSets; // FIRST
+
+    protected PrecedenceRelations(Grammar grammar, PrecedenceSets firstPrecedenceSets, PrecedenceSets lastPrecedenceSets) {
+        this.firstPrecedenceSets = firstPrecedenceSets;
+        this.lastPrecedenceSets = lastPrecedenceSets;
+        this.firstSets = new FirstSets(firstPrecedenceSets, grammar.getTerminals());
+        this.symbolTable = grammar.getSymbolTable();
+        this.matrix = new PrecedenceMatrix(symbolTable.size());
+    }
+
+    /**
+     * Adds relations for all productions
+     * @param productions productions list
+     * @return matrix with computed relations
+     * @throws RelationException when relations are in conflict
+     */
+    final PrecedenceMatrix compute(List<Production> productions) {
+        construct(productions);
+        return matrix;
+    }
+
+    protected void construct(List<Production> productions) {
+        for(Production production : productions) {
+            List<Symbol> rhs = production.getRhs();
+            for(int i = 1; i < rhs.size(); i++) {
+                Symbol left = rhs.get(i - 1);
+                Symbol right = rhs.get(i);
+
+                log.debug("Sliding pair: ({},{})", left, right);
+                addRelations(left, right);
+            }
+        }
+    }
+
+    protected abstract void addRelations(Symbol left, Symbol right);
+
+    protected void addEqualsRelation(Symbol left, Symbol right) {
+        addRelation(id(left), id(right), Precedence.EQUALS);
+    }
+
+    protected final void addLessThanRelation(Symbol left, Symbol right) {
+        log.debug("Adding relations: {} ⋖ {}({})", left, right, firstPrecedenceSets.getName());
+
+        int leftId = id(left);
+        BitSet rightIds = this.firstPrecedenceSets.getIdsFor(id(right));
+        for(int rightId = rightIds.nextSetBit(0); rightId >= 0; rightId = rightIds.nextSetBit(rightId + 1)) {
+            addRelation(leftId, rightId, Precedence.LESS_THAN);
+        }
+    }
+
+    protected final void addGreaterThanRelation(Symbol left, Symbol right) {
+        log.debug("Adding relations: {}({}) ⋗ {}({})", lastPrecedenceSets.getName(), left, firstSets.getName(), right);
+
+        BitSet leftIds = this.lastPrecedenceSets.getIdsFor(id(left));
+        BitSet rightIds = this.firstSets.getIdsFor(id(right));
+        for(int leftId = leftIds.nextSetBit(0); leftId >= 0; leftId = leftIds.nextSetBit(leftId + 1)) {
+            for(int rightId = rightIds.nextSetBit(0); rightId >= 0; rightId = rightIds.nextSetBit(rightId + 1)) {
+                addRelation(leftId, rightId, Precedence.GREATER_THAN);
+            }
+        }
+    }
+
+    private int id(Symbol symbol) {
+        return symbolTable.getId(symbol);
+    }
+
+    private void addRelation(int left, int right, Precedence precedence) {
+        if(log.isDebugEnabled()) {
+            log.debug("Adding relation: {} {} {}", symbolTable.get(left), precedence.getSymbol(), symbolTable.get(right));
+        }
+
+        Precedence currentPrecedence = matrix.getPrecedence(left, right);
+        if(null != currentPrecedence) {
+            if(precedence.equals(currentPrecedence)) {
+                log.warn("Trying to overwrite existing precedence with the same value. Skipping.");
+                return;
+            }
+
+            if(currentPrecedence.equals(Precedence.LESS_THAN_OR_EQUALS) &&
+                    (precedence.equals(Precedence.LESS_THAN) || precedence.equals(Precedence.EQUALS))) {
+                log.warn("There is already {} precedence. Tried to insert {}. Skipping.", currentPrecedence, precedence);
+                return;
+            }
+
+            if((precedence.equals(Precedence.EQUALS) && currentPrecedence.equals(Precedence.LESS_THAN)) ||
+                    (precedence.equals(Precedence.LESS_THAN) && currentPrecedence.equals(Precedence.EQUALS))) {
+                log.warn("Weak-precedence grammar detected. There is already {} symbol, while trying to insert {} symbol. Merging precedence symbol to {}", currentPrecedence, precedence, Precedence.LESS_THAN_OR_EQUALS);
+                matrix.set(left, right, Precedence.LESS_THAN_OR_EQUALS);
+            } else {
+                String message = String.format("Conflict detected. Tried to insert %s precedence while there is already %s precedence for (%s,%s) symbols", precedence, currentPrecedence, symbolTable.get(left), symbolTable.get(right));
+                log.error(message);
+                throw new RelationException(message);
+            }
+        } else {
+            matrix.set(left, right, precedence);
+        }
+    }
+}
@@ -29,41 +29,42 @@ import com.avispa.parser.misc.TablePrinter;
 import com.avispa.parser.precedence.grammar.Grammar;
 import com.avispa.parser.precedence.grammar.Production;
 import com.avispa.parser.precedence.grammar.Symbol;
-import com.avispa.parser.precedence.table.set.FirstSets;
-import com.avispa.parser.precedence.table.set.PrecedenceSets;
+import com.avispa.parser.precedence.grammar.SymbolTable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
+ * Relations are kept directly on symbol identifiers in the {@link PrecedenceMatrix}. Matrix is either computed by
+ * {@link PrecedenceRelations} or restored from the one computed earlier.
+ *
  * @author Rafał Hiszpański
  */
 @Slf4j
 public abstract class PrecedenceTable {
+    private final SymbolTable symbolTable;
+    @Getter
+    private final PrecedenceMatrix matrix;
     private final Map<Pair<Symbol, Symbol>, Precedence> table;
 
-    private final PrecedenceSets firstPrecedenceSets; // FIRST_OP/FIRST_ALL
-    private final PrecedenceSets lastPrecedenceSets; // LAST_OP/LAST_ALL
-    private final PrecedenceSets firstSets; // FIRST
-
     @Getter
     private final boolean withWeakPrecedenceConflict;
     @Getter
     private final boolean weakPrecedence;
 
-    protected PrecedenceTable(Grammar grammar, PrecedenceSets firstPrecedenceSets, PrecedenceSets lastPrecedenceSets) throws PrecedenceTableException {
-        this.firstPrecedenceSets = firstPrecedenceSets;
-        this.lastPrecedenceSets = lastPrecedenceSets;
-        this.firstSets = new FirstSets(firstPrecedenceSets, grammar.getTerminals());
+    PrecedenceTable(Grammar grammar, PrecedenceRelations relations) throws PrecedenceTableException {
+        this.symbolTable = grammar.getSymbolTable();
 
         try {
             final List<Production> productions = grammar.getProductions();
 
-            this.table = construct(productions);
+            this.matrix = relations.compute(productions);
+            this.table = toMap();
             this.withWeakPrecedenceConflict = hasLessThanOrEqualsConflict();
             this.weakPrecedence = getWeakPrecedence(productions);
         } catch(RelationException e) {
@@ -76,70 +77,37 @@ public abstract class PrecedenceTable {
         }
     }
 
-    protected Map<Pair<Symbol, Symbol>, Precedence> construct(List<Production> productions) {
-        Map<Pair<Symbol, Symbol>, Precedence> result = new HashMap<>();
-
-        productions.stream()
-                .map(Production::getRhs)
-                .flatMap(rhs -> ListUtil.sliding(rhs, 2))
-                .map(window -> Pair.of(window.get(0), window.get(1)))
-                .forEach(pair -> {
-                    log.debug("Sliding pair: {}", pair);
-                    addRelations(pair, result);
-                });
-
-        return result;
-    }
-
-    protected abstract void addRelations(Pair<Symbol, Symbol> currentPair, Map<Pair<Symbol, Symbol>, Precedence> result);
-
-    protected void addEqualsRelation(Pair<Symbol, Symbol> currentPair, Map<Pair<Symbol, Symbol>, Precedence> result) {
-        addRelation(currentPair, Precedence.EQUALS, result);
-    }
-
-    protected final void addLessThanRelation(Pair<Symbol, Symbol> currentPair, Map<Pair<Symbol, Symbol>, Precedence> result) {
-        log.debug("Adding relations: {} ⋖ {}({})", currentPair.getLeft(), currentPair.getRight(), firstPrecedenceSets.getName());
-
-        this.firstPrecedenceSets.getFor(currentPair.getRight())
-                .forEach(right -> addRelation(Pair.of(currentPair.getLeft(), right), Precedence.LESS_THAN, result));
-    }
-
-    protected final void addGreaterThanRelation(Pair<Symbol, Symbol> currentPair, Map<Pair<Symbol, Symbol>, Precedence> result) {
-        log.debug("Adding relations: {}({}) ⋗ {}({})", lastPrecedenceSets.getName(), currentPair.getLeft(), firstSets.getName(), currentPair.getRight());
+    /**
+     * Creates table from already computed matrix. Relations are not computed again.
+     * @param grammar grammar for which the matrix was computed
+     * @param matrix precedence matrix
+     * @param withWeakPrecedenceConflict true if there is a conflict of ⋖ with ≐ in any table cell
+     * @param weakPrecedence true if the table is of a weak-precedence grammar
+     * @throws IllegalArgumentException when matrix size does not match number of grammar symbols
+     */
+    PrecedenceTable(Grammar grammar, PrecedenceMatrix matrix, boolean withWeakPrecedenceConflict, boolean weakPrecedence) {
+        if(matrix.getSize() != grammar.getSymbolTable().size()) {
+            throw new IllegalArgumentException("Matrix size " + matrix.getSize() + " does not match number of grammar symbols " + grammar.getSymbolTable().size());
+        }
 
-        this.lastPrecedenceSets.getFor(currentPair.getLeft())
-                .forEach(left -> this.firstSets.getFor(currentPair.getRight())
-                        .forEach(right -> addRelation(Pair.of(left, right), Precedence.GREATER_THAN, result)));
+        this.symbolTable = grammar.getSymbolTable();
+        this.matrix = matrix;
+        this.table = toMap();
+        this.withWeakPrecedenceConflict = withWeakPrecedenceConflict;
+        this.weakPrecedence = weakPrecedence;
     }
 
-    protected final void addRelation(Pair<Symbol, Symbol> pair, Precedence precedence, Map<Pair<Symbol, Symbol>, Precedence> result) {
-        log.debug("Adding relation: {} {} {}", pair.getLeft(), precedence.getSymbol(), pair.getRight());
-
-        if(result.containsKey(pair)) {
-            Precedence currentPrecedence = result.get(pair);
-            if(precedence.equals(currentPrecedence)) {
-                log.warn("Trying to overwrite existing precedence with the same value. Skipping.");
-                return;
-            }
-
-            if(currentPrecedence.equals(Precedence.LESS_THAN_OR_EQUALS) &&
-                    (precedence.equals(Precedence.LESS_THAN) || precedence.equals(Precedence.EQUALS))) {
-                log.warn("There is already {} precedence. Tried to insert {}. Skipping.", currentPrecedence, precedence);
-                return;
-            }
-
-            if((precedence.equals(Precedence.EQUALS) && currentPrecedence.equals(Precedence.LESS_THAN)) ||
-                    (precedence.equals(Precedence.LESS_THAN) && currentPrecedence.equals(Precedence.EQUALS))) {
-                log.warn("Weak-precedence grammar detected. There is already {} symbol, while trying to insert {} symbol. Merging precedence symbol to {}", currentPrecedence, precedence, Precedence.LESS_THAN_OR_EQUALS);
-                result.put(pair, Precedence.LESS_THAN_OR_EQUALS);
-            } else {
-                String message = String.format("Conflict detected. Tried to insert %s precedence while there is already %s precedence for %s symbols", precedence, currentPrecedence, pair);
-                log.error(message);
-                throw new RelationException(message);
+    private Map<Pair<Symbol, Symbol>, Precedence> toMap() {
+        Map<Pair<Symbol, Symbol>, Precedence> result = new HashMap<>();
+        for(int left = 0; left < matrix.getSize(); left++) {
+            for(int right = 0; right < matrix.getSize(); right++) {
+                Precedence precedence = matrix.getPrecedence(left, right);
+                if(null != precedence) {
+                    result.put(Pair.of(symbolTable.get(left), symbolTable.get(right)), precedence);
+                }
             }
-        } else {
-            result.put(pair, precedence);
         }
+        return Collections.unmodifiableMap(result);
     }
 
     /**
@@ -207,7 +175,7 @@ public abstract class PrecedenceTable {
         Symbol comparedLhs = comparedProduction.getLhs();
         log.debug("Left-hand side of compared production: {}", comparedLhs);
 
-        Precedence precedence = table.get(Pair.of(firstUnique, comparedLhs));
+        Precedence precedence = get(firstUnique, comparedLhs);
 
         if(null != precedence) {
             log.debug("Precedence for ({}, {}) is {}", firstUnique, comparedLhs, precedence);
@@ -223,8 +191,21 @@ public abstract class PrecedenceTable {
         return table;
     }
 
+    /**
+     * Get relation between symbols. Lexemes are resolved to their terminals.
+     * @param a left symbol
+     * @param b right symbol
+     * @return precedence or null if there is no relation
+     */
     public Precedence get(Symbol a, Symbol b) {
-        return table.get(Pair.of(a, b));
+        int idA = symbolTable.getId(a);
+        int idB = symbolTable.getId(b);
+
+        if(idA == Symbol.UNDEFINED_ID || idB == Symbol.UNDEFINED_ID) {
+            return null;
+        }
+
+        return matrix.getPrecedence(idA, idB);
     }
 
     @Override
@@ -29,9 +29,6 @@ import com.avispa.parser.precedence.grammar.Symbol;
 import com.avispa.parser.precedence.table.set.FirstAllSets;
 import com.avispa.parser.precedence.table.set.LastAllSets;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.tuple.Pair;
-
-import java.util.Map;
 
 /**
  * @author Rafał Hiszpański
@@ -39,18 +36,24 @@ import java.util.Map;
 @Slf4j
 public class SimplePrecedenceTable extends PrecedenceTable {
     public SimplePrecedenceTable(Grammar grammar) throws PrecedenceTableException {
-        super(grammar, new FirstAllSets(grammar), new LastAllSets(grammar));
+        super(grammar, new Relations(grammar));
     }
 
-    @Override
-    protected void addRelations(Pair<Symbol, Symbol> currentPair, Map<Pair<Symbol, Symbol>, Precedence> result) {
-        // X ≐ Y
-        addEqualsRelation(currentPair, result);
+    private static final class Relations extends PrecedenceRelations {
+        private Relations(Grammar grammar) {
+            super(grammar, new FirstAllSets(grammar), new LastAllSets(grammar));
+        }
+
+        @Override
+        protected void addRelations(Symbol left, Symbol right) {
+            // X ≐ Y
+            addEqualsRelation(left, right);
 
-        // X ⋖ FIRST_ALL(Y)
-        addLessThanRelation(currentPair, result);
+            // X ⋖ FIRST_ALL(Y)
+            addLessThanRelation(left, right);
 
-        // LAST_ALL(X) ⋗ FIRST(Y)
-        addGreaterThanRelation(currentPair, result);
+            // LAST_ALL(X) ⋗ FIRST(Y)
+            addGreaterThanRelation(left, right);
+        }
     }
 }
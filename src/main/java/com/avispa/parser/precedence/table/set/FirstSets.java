@@ -24,11 +24,11 @@
 
 package com.avispa.parser.precedence.table.set;
 
-import com.avispa.parser.precedence.grammar.NonTerminal;
 import com.avispa.parser.precedence.grammar.Symbol;
 import com.avispa.parser.precedence.grammar.Terminal;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.Set;
 
@@ -38,7 +38,7 @@ import java.util.Set;
 @Slf4j
 public class FirstSets extends PrecedenceSets {
     public FirstSets(PrecedenceSets firstAll, Set<Terminal> terminals) {
-        super("FIRST");
+        super(firstAll.symbolTable, "FIRST");
         log.debug("Constructing {} set.", name);
         initialize(terminals);
         construct(firstAll);
@@ -51,7 +51,7 @@ public class FirstSets extends PrecedenceSets {
      */
     private void initialize(Set<Terminal> terminals) {
         for(Terminal terminal : terminals) {
-            this.sets.put(terminal, Set.of(terminal));
+            update(terminal, terminal);
         }
     }
 
@@ -60,15 +60,12 @@ public class FirstSets extends PrecedenceSets {
      * with terminals only.
      */
     private void construct(PrecedenceSets firstAll) {
-        var firstAllMap = firstAll.get();
-        for(var firstAllForSymbol : firstAllMap.entrySet()) {
-            Symbol setSymbol = firstAllForSymbol.getKey();
-            if(NonTerminal.isOf(setSymbol)) {
-                for(Symbol symbol : firstAllForSymbol.getValue()) {
-                    if(Terminal.isOf(symbol)) {
-                        update(setSymbol, symbol);
-                    }
-                }
+        for(int id = symbolTable.getTerminalCount(); id < symbolTable.size(); id++) {
+            BitSet terminals = firstAll.getIdsFor(id);
+            terminals.clear(symbolTable.getTerminalCount(), symbolTable.size());
+
+            if(!terminals.isEmpty()) {
+                update(id, terminals);
             }
         }
     }
@@ -31,11 +31,7 @@ import com.avispa.parser.precedence.grammar.Symbol;
 import com.avispa.parser.precedence.grammar.Terminal;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -44,88 +40,39 @@ import java.util.Set;
 @Slf4j
 public abstract class OperatorPrecedenceSets extends PrecedenceSets {
     OperatorPrecedenceSets(Grammar grammar, String setsName) {
-        super(setsName);
+        super(grammar.getSymbolTable(), setsName);
         log.debug("Constructing {} set for '{}' grammar.", setsName, grammar.getName());
         construct(grammar);
         log.debug("{}", this);
     }
 
     /**
-     * Iterate through all productions to find sets elements.
+     * Each production relates its left-hand side non-terminal with the first/last symbol if it is a non-terminal and with
+     * the first/last terminal of the production. Transitive closure of these relations restricted to terminals gives
+     * complete sets.
      *
      * @param grammar context free grammar for which sets should be built
      */
     private void construct(Grammar grammar) {
-        // group productions by left-hand side non-terminals so alternatives can be processed in single external loop run
-        Map<NonTerminal, List<Production>> productionsByLhs =
-                groupProductionsByLhs(grammar);
+        for(Production production : grammar.getProductions()) {
+            NonTerminal lhs = production.getLhs();
+            List<Symbol> rhsSymbols = production.getRhs();
 
-        for(NonTerminal nonTerminal : grammar.getNonTerminals()) {
-            constructFor(nonTerminal, productionsByLhs, new ArrayDeque<>());
-        }
-    }
-
-    /**
-     * Iterate through productions of provided left-hand side non-terminal to find its operator precedence set.
-     *
-     * @param lhs current lhs non-terminal
-     * @param productionsByLhs list of productions grouped by lhs non-terminal
-     */
-    private Set<Symbol> constructFor(NonTerminal lhs, Map<NonTerminal, List<Production>> productionsByLhs, Deque<NonTerminal> recursionChain) {
-        log.debug("Started processing of '{}' non-terminal.", lhs);
-
-        Set<Symbol> set = new HashSet<>();
-        for (Production production : productionsByLhs.get(lhs)) { // for all alternatives
-            set.addAll(constructDownstream(lhs, production.getRhs(), productionsByLhs, recursionChain));
-        }
-        return set;
-    }
-
-    /**
-     * Method constructs set of terminals, which applies to FIRST_OP or LAST_OP sets defined for left-hand side non-terminal.
-     * First it gets first/last symbol of production and it i
-     * First/last terminals on the right are added to FIRST_OP and LAST_OP sets respectively. If symbol is a non-terminal
-     * it is recursively checked for it's first/last symbols until end of possible derivation
-     * is reached. The algorithm does not do recursive check if non-terminal was already visited to prevent infinite loop.
-     *
-     * @param lhs
-     * @param rhsSymbols
-     * @param productionsByLhs
-     * @param recursionChain
-     * @return
-     */
-    private Set<Symbol> constructDownstream(NonTerminal lhs, List<Symbol> rhsSymbols, Map<NonTerminal, List<Production>> productionsByLhs, Deque<NonTerminal> recursionChain) {
-        Symbol symbol = findSymbol(rhsSymbols);
-
-        Set<Symbol> downstreamTerminals = new HashSet<>();
-        if(NonTerminal.isOf(symbol)) {
-            NonTerminal nonTerminal = (NonTerminal) symbol;
-
-            if(this.sets.containsKey(symbol)) {
-                log.debug("Set for '{}' already exists. It will be reused.", symbol);
-                downstreamTerminals = new HashSet<>(this.sets.get(symbol)); // make a copy, otherwise set for last symbol non-terminal will be overwritten
-            } else if(recursionChain.contains(nonTerminal)) {
-                log.debug("Set for '{}' does not exist and is already under construction.", nonTerminal);
-            } else {
-                log.debug("Set for '{}' does not exists. It will be created by recursive construction.", nonTerminal);
-
-                recursionChain.push(nonTerminal);
-                downstreamTerminals = constructFor(nonTerminal, productionsByLhs, recursionChain);
-                recursionChain.pop();
+            Symbol symbol = findSymbol(rhsSymbols);
+            if(NonTerminal.isOf(symbol)) {
+                update(lhs, symbol);
             }
 
-            Terminal terminal = findTerminal(rhsSymbols); // find first terminal
+            Terminal terminal = findTerminal(rhsSymbols);
             if(null != terminal) {
-                downstreamTerminals.add(terminal); // add found terminal to propagate it upstream
+                update(lhs, terminal);
+            } else {
+                update(lhs, Set.of()); // make sure set exists even if production has no terminals
             }
-        } else {
-            downstreamTerminals.add(symbol);
         }
 
-        log.debug("Generated set for '{}' non-terminal: {}", lhs, downstreamTerminals);
-        update(lhs, downstreamTerminals);
-
-        return downstreamTerminals;
+        computeTransitiveClosure();
+        retainTerminals();
     }
 
     /**
@@ -24,53 +24,37 @@
 
 package com.avispa.parser.precedence.table.set;
 
-import com.avispa.parser.precedence.grammar.Grammar;
-import com.avispa.parser.precedence.grammar.NonTerminal;
-import com.avispa.parser.precedence.grammar.Production;
 import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.SymbolTable;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
+ * Sets are stored as bit sets indexed by identifiers of grammar symbols.
+ *
  * @author Rafał Hiszpański
  */
 @Slf4j
 public abstract class PrecedenceSets {
-    protected final Map<Symbol, Set<Symbol>> sets = new HashMap<>();
+    protected final SymbolTable symbolTable;
+    private final BitSet[] sets; // null when set for the symbol was not created
     @Getter
     protected final String name;
 
-    PrecedenceSets(String name) {
+    PrecedenceSets(SymbolTable symbolTable, String name) {
+        this.symbolTable = symbolTable;
+        this.sets = new BitSet[symbolTable.size()];
         this.name = name;
     }
 
-    /**
-     * Groups productions by left-hand side. This groups all alternatives into single entry.
-     *
-     * Input:
-     * E -> A | a;
-     * E -> Ac;
-     * A -> bc;
-     * Output:
-     * key=E, value=[A, a, Ac]
-     * key=A, value=[bc]
-     * @param grammar
-     * @return
-     */
-    protected final Map<NonTerminal, List<Production>> groupProductionsByLhs(Grammar grammar) {
-        return grammar.getProductions()
-                .stream()
-                .collect(Collectors.groupingBy(Production::getLhs));
-    }
-
     /**
      * Finds first or last symbol (of any type) from right-hand side symbols
      * @param rhsSymbols
@@ -84,8 +68,7 @@ public abstract class PrecedenceSets {
      * @param symbol
      */
     protected final void update(Symbol lhs, Symbol symbol) {
-        this.sets.computeIfAbsent(lhs, key -> new HashSet<>())
-                .add(symbol);
+        getOrCreate(lhs).set(symbolTable.getId(symbol));
     }
 
     /**
@@ -94,8 +77,69 @@ public abstract class PrecedenceSets {
      * @param symbols
      */
     protected final void update(Symbol lhs, Set<Symbol> symbols) {
-        this.sets.computeIfAbsent(lhs, key -> new HashSet<>())
-                .addAll(symbols);
+        BitSet set = getOrCreate(lhs);
+        for(Symbol symbol : symbols) {
+            set.set(symbolTable.getId(symbol));
+        }
+    }
+
+    private BitSet getOrCreate(Symbol lhs) {
+        int id = symbolTable.getId(lhs);
+        if(null == sets[id]) {
+            sets[id] = new BitSet(sets.length);
+        }
+        return sets[id];
+    }
+
+    /**
+     * Update set by adding symbols with provided identifiers. If these are the first values, create empty set first.
+     * @param lhsId
+     * @param ids
+     */
+    protected final void update(int lhsId, BitSet ids) {
+        if(null == sets[lhsId]) {
+            sets[lhsId] = new BitSet(sets.length);
+        }
+        sets[lhsId].or(ids);
+    }
+
+    /**
+     * Replaces direct relations stored in the sets with their transitive closure using Warshall algorithm. Rows are
+     * bit sets, so merging a row is done a machine word at a time. Only symbols having their own set (non-terminals)
+     * can extend other sets.
+     */
+    protected final void computeTransitiveClosure() {
+        for(int k = 0; k < sets.length; k++) {
+            if(null == sets[k]) {
+                continue;
+            }
+
+            for(int i = 0; i < sets.length; i++) {
+                if(i != k && null != sets[i] && sets[i].get(k)) {
+                    sets[i].or(sets[k]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes non-terminals from all sets. Terminals have lowest identifiers, so everything above them is cleared.
+     */
+    protected final void retainTerminals() {
+        for(BitSet set : sets) {
+            if(null != set) {
+                set.clear(symbolTable.getTerminalCount(), sets.length);
+            }
+        }
+    }
+
+    /**
+     * @param symbol
+     * @return true if set for provided symbol was already created
+     */
+    protected final boolean contains(Symbol symbol) {
+        int id = symbolTable.getId(symbol);
+        return id != Symbol.UNDEFINED_ID && null != sets[id];
     }
 
     /**
@@ -104,7 +148,22 @@ public abstract class PrecedenceSets {
      * @return
      */
     public final Set<Symbol> getFor(Symbol symbol) {
-        return Collections.unmodifiableSet(this.sets.getOrDefault(symbol, Set.of()));
+        int id = symbolTable.getId(symbol);
+        if(id == Symbol.UNDEFINED_ID || null == sets[id]) {
+            return Set.of();
+        }
+
+        return toSymbols(sets[id]);
+    }
+
+    /**
+     * Get identifiers of symbols in the set for symbol with provided identifier. If set does not exist, empty set is
+     * returned.
+     * @param id symbol identifier
+     * @return copy of the set
+     */
+    public final BitSet getIdsFor(int id) {
+        return null == sets[id] ? new BitSet() : (BitSet) sets[id].clone();
     }
 
     /**
@@ -112,7 +171,19 @@ public abstract class PrecedenceSets {
      * @return
      */
     public final Map<Symbol, Set<Symbol>> get() {
-        return Collections.unmodifiableMap(this.sets);
+        Map<Symbol, Set<Symbol>> result = new LinkedHashMap<>();
+        for(int id = 0; id < sets.length; id++) {
+            if(null != sets[id]) {
+                result.put(symbolTable.get(id), toSymbols(sets[id]));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private Set<Symbol> toSymbols(BitSet set) {
+        Set<Symbol> result = new LinkedHashSet<>();
+        set.stream().forEach(id -> result.add(symbolTable.get(id)));
+        return Collections.unmodifiableSet(result);
     }
 
     @Override
@@ -120,8 +191,8 @@ public abstract class PrecedenceSets {
         final StringBuilder sb = new StringBuilder();
         final String newLine = System.lineSeparator();
 
-        this.sets.forEach((key, value) -> sb.append(String.format("%s(%s)=%s", name, key, value)).append(newLine));
+        get().forEach((key, value) -> sb.append(String.format("%s(%s)=%s", name, key, value)).append(newLine));
 
         return sb.toString();
     }
-}
\ No newline at end of file
+}
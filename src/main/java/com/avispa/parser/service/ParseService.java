@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.service;
+
+import com.avispa.parser.Parser;
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.parser.SyntaxException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs parse requests on the provided executor, e.g. virtual thread per task executor or fixed thread pool, using
+ * single shared parser.
+ *
+ * The number of requests admitted at the same time (queued or running) is limited. Request exceeding the limit is
+ * rejected immediately instead of waiting. Each admitted request has to finish within the timeout, otherwise the
+ * caller gets {@link TimeoutException} and the task is cancelled. Permit of the request is held until its task
+ * really stops, so cancelled but still running parses are counted against the limit.
+ *
+ * Nothing is logged on the request path and counters use {@link LongAdder}, so the service does not take any locks
+ * apart from the executor internals.
+ *
+ * The service does not own the executor and never shuts it down.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class ParseService<O> {
+    private final Parser<O> parser;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final long timeoutNanos;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final LongAdder totalServiceNanos = new LongAdder();
+
+    /**
+     * @param parser thread-safe parser
+     * @param executor executor running parse tasks
+     * @param maxConcurrentRequests maximum number of requests queued or running at the same time
+     * @param timeout maximum time of single request, including time spent in the executor queue
+     */
+    public ParseService(Parser<O> parser, ExecutorService executor, int maxConcurrentRequests, Duration timeout) {
+        if(maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("Maximum number of concurrent requests must be greater than 0");
+        }
+        if(timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+
+        this.parser = parser;
+        this.executor = executor;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Parses the input on the executor and waits for the result
+     * @param input input to parse
+     * @return parser output
+     * @throws ParseRejectedException when the limit of concurrent requests is reached or executor rejects the task
+     * @throws TimeoutException when parsing does not finish within the timeout
+     * @throws InterruptedException when waiting thread is interrupted, the task is cancelled then
+     */
+    public List<O> parse(CharSequence input) throws ParseRejectedException, TimeoutException, InterruptedException, LexerException, SyntaxException {
+        if(!permits.tryAcquire()) {
+            rejected.increment();
+            throw new ParseRejectedException("Limit of " + maxConcurrentRequests + " concurrent requests reached");
+        }
+
+        AtomicBoolean claimed = new AtomicBoolean(); // set by the task when it starts or by the caller when it gives up
+        long admissionTime = System.nanoTime();
+
+        Future<List<O>> future;
+        try {
+            future = executor.submit(createTask(input, claimed, admissionTime));
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            rejected.increment();
+            throw new ParseRejectedException("Executor rejected the request: " + e.getMessage());
+        }
+        admitted.increment();
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            cancel(future, claimed);
+            throw e;
+        } catch (InterruptedException e) {
+            cancel(future, claimed);
+            throw e;
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private Callable<List<O>> createTask(CharSequence input, AtomicBoolean claimed, long admissionTime) {
+        return () -> {
+            if(!claimed.compareAndSet(false, true)) {
+                throw new CancellationException("Request was abandoned before it started");
+            }
+
+            long start = System.nanoTime();
+            totalQueueNanos.add(start - admissionTime);
+            try {
+                List<O> output = parser.parse(input);
+                completed.increment();
+                return output;
+            } catch (Exception e) {
+                failed.increment();
+                throw e;
+            } finally {
+                totalServiceNanos.add(System.nanoTime() - start);
+                permits.release();
+            }
+        };
+    }
+
+    /**
+     * Releases the permit if the task has not started yet. Started task releases the permit itself when it stops.
+     */
+    private void cancel(Future<List<O>> future, AtomicBoolean claimed) {
+        if(claimed.compareAndSet(false, true)) {
+            permits.release();
+        }
+        future.cancel(true);
+    }
+
+    /**
+     * Rethrows exception thrown by the parser in the task
+     * @return exception to throw when the cause is not expected from the parser
+     */
+    private IllegalStateException unwrap(ExecutionException e) throws LexerException, SyntaxException {
+        Throwable cause = e.getCause();
+        if(cause instanceof LexerException) {
+            throw (LexerException) cause;
+        } else if(cause instanceof SyntaxException) {
+            throw (SyntaxException) cause;
+        } else if(cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if(cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException("Unexpected parser failure", cause);
+    }
+
+    /**
+     * @return number of requests currently queued or running
+     */
+    public int getActiveRequests() {
+        return maxConcurrentRequests - permits.availablePermits();
+    }
+
+    public ParseServiceMetrics getMetrics() {
+        return new ParseServiceMetrics(admitted.sum(), rejected.sum(), completed.sum(), failed.sum(), timedOut.sum(),
+                totalQueueNanos.sum(), totalServiceNanos.sum());
+    }
+}
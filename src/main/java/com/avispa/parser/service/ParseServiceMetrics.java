@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of {@link ParseService} counters. Queue time is measured from the request admission to the start of
+ * parsing, service time from the start to the end of parsing.
+ *
+ * @author Rafał Hiszpański
+ */
+@Getter
+@RequiredArgsConstructor
+public final class ParseServiceMetrics {
+    private final long admitted;
+    private final long rejected;
+    private final long completed;
+    private final long failed;
+    private final long timedOut;
+    private final long totalQueueNanos;
+    private final long totalServiceNanos;
+
+    /**
+     * @return average time spent by started requests waiting for the executor
+     */
+    public Duration getAverageQueueTime() {
+        long started = completed + failed;
+        return Duration.ofNanos(started == 0 ? 0 : totalQueueNanos / started);
+    }
+
+    /**
+     * @return average parsing time of finished requests
+     */
+    public Duration getAverageServiceTime() {
+        long finished = completed + failed;
+        return Duration.ofNanos(finished == 0 ? 0 : totalServiceNanos / finished);
+    }
+
+    @Override
+    public String toString() {
+        return "admitted=" + admitted + ", rejected=" + rejected + ", completed=" + completed + ", failed=" + failed +
+                ", timedOut=" + timedOut + ", averageQueueTime=" + getAverageQueueTime() + ", averageServiceTime=" + getAverageServiceTime();
+    }
+}
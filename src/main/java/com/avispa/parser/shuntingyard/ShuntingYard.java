@@ -31,20 +31,24 @@ import com.avispa.parser.shuntingyard.token.FunctionToken;
 import com.avispa.parser.shuntingyard.token.MathOperator;
 import com.avispa.parser.shuntingyard.token.Misc;
 import com.avispa.parser.shuntingyard.token.Operand;
+import com.avispa.parser.shuntingyard.token.Variable;
 import com.avispa.parser.shuntingyard.tokenizer.Tokenizer;
 import com.avispa.parser.token.Token;
-import lombok.extern.slf4j.Slf4j;
+import com.avispa.parser.trace.Tracing;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
+ * Shunting-yard parser has no state outside the parse call, so single instance can be shared between threads.
+ *
  * @author Rafał Hiszpański
  */
-@Slf4j
 public class ShuntingYard implements Parser<Token> {
+	private final Tokenizer tokenizer = new Tokenizer();
 
 	/**
 	 * Runs Shunting-yard algorithm for expressions parsing.
@@ -52,18 +56,33 @@ public class ShuntingYard implements Parser<Token> {
 	 * @return list of parsed tokens
 	 */
 	@Override
-    public List<Token> parse(String expression) throws LexerException, SyntaxException {
+    public List<Token> parse(CharSequence expression) throws LexerException, SyntaxException {
 		List<Token> output = new ArrayList<>();
+		parse(expression, output::add);
+
+		if(Tracing.ENABLED) {
+			Tracing.trace(ShuntingYard.class, "Output: {}", output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Runs Shunting-yard algorithm and passes each token to the output as soon as its position in the reverse polish
+	 * notation is known. Operands are passed when they are read, operators and functions when they are popped from
+	 * the operators stack. Tokens are read from the expression one by one, so memory used depends only on the stacks
+	 * depth.
+	 * @param expression input string expression
+	 * @param output consumer receiving tokens in reverse polish notation order
+	 */
+	public void parse(CharSequence expression, Consumer<Token> output) throws LexerException, SyntaxException {
 		Deque<Token> opStack = new ArrayDeque<>();
 		Deque<Call> callStack = new ArrayDeque<>();
 
-		Tokenizer tokenizer = new Tokenizer();
-		List<Token> tokens = tokenizer.tokenize(expression);
-		log.debug("Expression \"{}\" has been tokenized to: {}", expression, tokens);
-
-		for(Token token : tokens) {
-			if (token instanceof Operand) {
-				output.add(token);
+		Tokenizer.TokenStream tokens = tokenizer.stream(expression);
+		for(Token token = tokens.next(); null != token; token = tokens.next()) {
+			if (token instanceof Operand || token instanceof Variable) {
+				output.accept(token);
 			} else if (token instanceof FunctionToken) {
 				Call call = new Call((FunctionToken) token);
 				callStack.push(call);
@@ -89,23 +108,19 @@ public class ShuntingYard implements Parser<Token> {
 			if(Misc.LEFT_PARENTHESIS.equals(token)) {
 				throw new SyntaxException("Mismatched parentheses!");
 			}
-			output.add(token);
+			output.accept(token);
 		}
-
-		log.debug("Output: {}", output);
-        
-        return output;
     }
 
 	/**
 	 * Pops back to the place where the parenthesis was found. Left parenthesis is not popped from
 	 * the stack.
 	 * @param opStack operators stack
-	 * @param output output token list
+	 * @param output consumer of output tokens
 	 */
-	private void closeParenthesesGroup(Deque<Token> opStack, List<Token> output) throws SyntaxException {
+	private void closeParenthesesGroup(Deque<Token> opStack, Consumer<Token> output) throws SyntaxException {
 		while(!Misc.LEFT_PARENTHESIS.equals(opStack.peek())) {
-			output.add(opStack.pop());
+			output.accept(opStack.pop());
 			if(opStack.isEmpty()) {
 				throw new SyntaxException("Missing left parenthesis");
 			}
@@ -128,15 +143,15 @@ public class ShuntingYard implements Parser<Token> {
 	 * Standard Shunting-yard algorithm for processing (math) operators.
 	 * @param operator current operator
 	 * @param opStack operators stack
-	 * @param output output token list
+	 * @param output consumer of output tokens
 	 */
-	private void processOperator(MathOperator operator, Deque<Token> opStack, List<Token> output) {
+	private void processOperator(MathOperator operator, Deque<Token> opStack, Consumer<Token> output) {
 		while(opStack.peek() instanceof MathOperator) {
 			MathOperator topOperator = (MathOperator) opStack.peek();
 
 			if(topOperator.getPrecedence() > operator.getPrecedence() ||
 					(operator.isLeftAssociative() && topOperator.getPrecedence() == operator.getPrecedence())) {
-				output.add(opStack.pop());
+				output.accept(opStack.pop());
 			} else {
 				break;
 			}
@@ -149,15 +164,15 @@ public class ShuntingYard implements Parser<Token> {
 	 * If yes then simple validation is performed and function is eventually added to the result.
 	 * @param opStack operators stack
 	 * @param callStack stack containing information about functions
-	 * @param output output token list
+	 * @param output consumer of output tokens
 	 */
-	private void processFunctionClosure(Deque<Token> opStack, Deque<Call> callStack, List<Token> output) throws SyntaxException {
+	private void processFunctionClosure(Deque<Token> opStack, Deque<Call> callStack, Consumer<Token> output) throws SyntaxException {
 		if(opStack.peek() instanceof FunctionToken) {
 			Call call = callStack.pop();
 
 			call.incArgumentCount(); // right parenthesis closed last argument
 			if(call.hasAllArguments()) {
-				output.add(opStack.pop());
+				output.accept(opStack.pop());
 			} else {
 				String message = String.format("Function does not have all arguments defined. Expected: %s, is: %s", call.getFunctionToken().getExpectedArgCount(), call.getArgCount());
 				throw new SyntaxException(message);
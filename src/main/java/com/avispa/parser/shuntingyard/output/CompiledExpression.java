@@ -0,0 +1,302 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.shuntingyard.output;
+
+import com.avispa.parser.precedence.parser.SyntaxException;
+import com.avispa.parser.shuntingyard.token.BinaryOperatorToken;
+import com.avispa.parser.shuntingyard.token.FunctionToken;
+import com.avispa.parser.shuntingyard.token.Operand;
+import com.avispa.parser.shuntingyard.token.UnaryOperatorToken;
+import com.avispa.parser.shuntingyard.token.Variable;
+import com.avispa.parser.token.Token;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Expression in reverse polish notation ready for evaluation. Tokens are classified and the operands stack size is
+ * computed once during compilation, evaluation only walks the program. Compiled expression is immutable, so single
+ * instance can be evaluated by many threads at the same time.
+ *
+ * Variables are numbered in the order of their first occurrence in the expression.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class CompiledExpression {
+    private static final byte OPERAND = 0;
+    private static final byte VARIABLE = 1;
+    private static final byte UNARY_OPERATOR = 2;
+    private static final byte BINARY_OPERATOR = 3;
+    private static final byte FUNCTION = 4;
+
+    private final Token[] program;
+    private final byte[] types;
+    private final int[] variableIndexes; // index of the variable for variable tokens
+    private final double[] constants; // double value of operand tokens
+    private final List<String> variables;
+    private final int maxStackSize;
+
+    /**
+     * @param program tokens in reverse polish notation order
+     * @throws SyntaxException when operators do not have enough operands or there are operands left without operator
+     */
+    CompiledExpression(List<Token> program) throws SyntaxException {
+        this.program = program.toArray(new Token[0]);
+        this.types = new byte[this.program.length];
+        this.variableIndexes = new int[this.program.length];
+        this.constants = new double[this.program.length];
+
+        List<String> names = new ArrayList<>();
+        int stackSize = 0;
+        int maxSize = 0;
+        for(int i = 0; i < this.program.length; i++) {
+            Token token = this.program[i];
+            int arguments;
+            if(token instanceof Operand) {
+                types[i] = OPERAND;
+                arguments = 0;
+                constants[i] = ((Operand) token).get().doubleValue();
+            } else if(token instanceof Variable) {
+                types[i] = VARIABLE;
+                arguments = 0;
+                int index = names.indexOf(token.getValue());
+                if(index < 0) {
+                    index = names.size();
+                    names.add(token.getValue());
+                }
+                variableIndexes[i] = index;
+            } else if(token instanceof UnaryOperatorToken) {
+                types[i] = UNARY_OPERATOR;
+                arguments = 1;
+            } else if(token instanceof BinaryOperatorToken) {
+                types[i] = BINARY_OPERATOR;
+                arguments = 2;
+            } else if(token instanceof FunctionToken) {
+                types[i] = FUNCTION;
+                arguments = ((FunctionToken) token).getExpectedArgCount();
+            } else {
+                throw new SyntaxException("Token " + token + " can't be evaluated");
+            }
+
+            if(stackSize < arguments) {
+                throw new SyntaxException("Missing operand of " + token);
+            }
+            stackSize = stackSize - arguments + 1;
+            maxSize = Math.max(maxSize, stackSize);
+        }
+
+        if(stackSize > 1) {
+            throw new SyntaxException("Missing operator. There are " + stackSize + " operands left");
+        }
+
+        this.variables = Collections.unmodifiableList(names);
+        this.maxStackSize = maxSize;
+    }
+
+    /**
+     * @return names of variables in the order of values expected by {@link #evaluate(BigDecimal...)}
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * @param values values of the variables in the order returned by {@link #getVariables()}
+     * @return value of the expression
+     */
+    public BigDecimal evaluate(BigDecimal... values) {
+        if(values.length != variables.size()) {
+            String message = String.format("Expected %d variable values. Got %d.", variables.size(), values.length);
+            throw new IllegalArgumentException(message);
+        }
+
+        Operand[] operands = new Operand[values.length];
+        for(int i = 0; i < values.length; i++) {
+            if(null == values[i]) {
+                throw new IllegalArgumentException("No value for variable " + variables.get(i));
+            }
+            operands[i] = Operand.from(values[i]);
+        }
+
+        return run(operands);
+    }
+
+    /**
+     * @param values values of the variables by their names
+     * @return value of the expression
+     */
+    public BigDecimal evaluate(Map<String, BigDecimal> values) {
+        BigDecimal[] ordered = new BigDecimal[variables.size()];
+        for(int i = 0; i < ordered.length; i++) {
+            ordered[i] = values.get(variables.get(i));
+        }
+
+        return evaluate(ordered);
+    }
+
+    /**
+     * Evaluates expression in {@link NumericMode#DOUBLE} mode. The only allocated object is the operands stack.
+     *
+     * @param values values of the variables in the order returned by {@link #getVariables()}
+     * @return value of the expression
+     * @throws ArithmeticException when the value is not a finite number
+     */
+    public double evaluateDouble(double... values) {
+        if(values.length != variables.size()) {
+            String message = String.format("Expected %d variable values. Got %d.", variables.size(), values.length);
+            throw new IllegalArgumentException(message);
+        }
+
+        if(program.length == 0) {
+            return 0;
+        }
+
+        double[] stack = new double[maxStackSize];
+        int top = -1;
+
+        for(int i = 0; i < program.length; i++) {
+            switch(types[i]) {
+                case OPERAND:
+                    stack[++top] = constants[i];
+                    break;
+                case VARIABLE:
+                    stack[++top] = values[variableIndexes[i]];
+                    break;
+                case UNARY_OPERATOR:
+                    stack[top] = ((UnaryOperatorToken) program[i]).applyAsDouble(stack[top]);
+                    break;
+                case BINARY_OPERATOR:
+                    double last = stack[top--];
+                    stack[top] = ((BinaryOperatorToken) program[i]).applyAsDouble(last, stack[top]);
+                    break;
+                default:
+                    FunctionToken function = (FunctionToken) program[i];
+                    double result = function.applyAsDouble(stack, top);
+                    top -= function.getExpectedArgCount();
+                    stack[++top] = result;
+            }
+        }
+
+        return NumericMode.requireFinite(stack[0]);
+    }
+
+    /**
+     * Compiles expression to the function evaluating it in {@link NumericMode#DOUBLE} mode. Unlike
+     * {@link #evaluateDouble(double...)} the program is not interpreted - it is turned into the tree of method handles,
+     * which the JIT inlines into native arithmetic. Compilation is relatively expensive, so the function should be
+     * created once and reused.
+     *
+     * @return function accepting values of the variables in the order returned by {@link #getVariables()} and throwing
+     * {@link ArithmeticException} when the value is not a finite number
+     */
+    public ToDoubleFunction<double[]> toDoubleFunction() {
+        if(program.length == 0) {
+            return MethodHandleFunction.from(MethodHandleFunction.constant(0), 0);
+        }
+
+        MethodHandle[] stack = new MethodHandle[maxStackSize];
+        int top = -1;
+
+        for(int i = 0; i < program.length; i++) {
+            switch(types[i]) {
+                case OPERAND:
+                    stack[++top] = MethodHandleFunction.constant(constants[i]);
+                    break;
+                case VARIABLE:
+                    stack[++top] = MethodHandleFunction.variable(variableIndexes[i]);
+                    break;
+                case UNARY_OPERATOR:
+                    stack[top] = MethodHandleFunction.unaryOperation((UnaryOperatorToken) program[i], stack[top]);
+                    break;
+                case BINARY_OPERATOR:
+                    MethodHandle last = stack[top--];
+                    stack[top] = MethodHandleFunction.binaryOperation((BinaryOperatorToken) program[i], last, stack[top]);
+                    break;
+                default:
+                    FunctionToken function = (FunctionToken) program[i];
+                    MethodHandle[] arguments = new MethodHandle[function.getExpectedArgCount()];
+                    top -= arguments.length;
+                    System.arraycopy(stack, top + 1, arguments, 0, arguments.length);
+                    stack[++top] = MethodHandleFunction.function(function, arguments);
+            }
+        }
+
+        return MethodHandleFunction.from(stack[0], variables.size());
+    }
+
+    private BigDecimal run(Operand[] variableValues) {
+        if(program.length == 0) {
+            return BigDecimal.ZERO;
+        }
+
+        Operand[] stack = new Operand[maxStackSize];
+        int top = -1;
+
+        for(int i = 0; i < program.length; i++) {
+            switch(types[i]) {
+                case OPERAND:
+                    stack[++top] = (Operand) program[i];
+                    break;
+                case VARIABLE:
+                    stack[++top] = variableValues[variableIndexes[i]];
+                    break;
+                case UNARY_OPERATOR:
+                    stack[top] = ((UnaryOperatorToken) program[i]).apply(stack[top]);
+                    break;
+                case BINARY_OPERATOR:
+                    Operand last = stack[top--];
+                    stack[top] = ((BinaryOperatorToken) program[i]).apply(last, stack[top]);
+                    break;
+                default:
+                    FunctionToken function = (FunctionToken) program[i];
+                    Operand[] arguments = new Operand[function.getExpectedArgCount()];
+                    for(int j = 0; j < arguments.length; j++) { // the same order as in Evaluator - last argument first
+                        arguments[j] = stack[top--];
+                    }
+                    stack[++top] = function.apply(arguments);
+            }
+        }
+
+        return stack[0].get().stripTrailingZeros();
+    }
+
+    /**
+     * @return expression in reverse polish notation
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(" ");
+        for(Token token : program) {
+            joiner.add(token.getValue());
+        }
+        return joiner.toString();
+    }
+}
@@ -25,39 +25,55 @@
 package com.avispa.parser.shuntingyard.output;
 
 import com.avispa.parser.lexer.LexerException;
-import com.avispa.parser.output.AbstractOutputTransformer;
+import com.avispa.parser.output.OutputTransformer;
 import com.avispa.parser.precedence.parser.SyntaxException;
 import com.avispa.parser.shuntingyard.ShuntingYard;
 import com.avispa.parser.shuntingyard.token.BinaryOperatorToken;
 import com.avispa.parser.shuntingyard.token.FunctionToken;
 import com.avispa.parser.shuntingyard.token.Operand;
 import com.avispa.parser.shuntingyard.token.UnaryOperatorToken;
+import com.avispa.parser.shuntingyard.token.Variable;
 import com.avispa.parser.token.Token;
 
 import java.math.BigDecimal;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
-import java.util.List;
 import java.util.stream.IntStream;
 
 /**
  * @author Rafał Hiszpański
  */
-public final class Evaluator extends AbstractOutputTransformer<BigDecimal, Token> {
+public final class Evaluator implements OutputTransformer<BigDecimal> {
+    private static final int INITIAL_STACK_SIZE = 16;
+
+    private final ShuntingYard shuntingYard = new ShuntingYard();
+    private final NumericMode mode;
+
     public Evaluator() {
-        super(new ShuntingYard());
+        this(NumericMode.EXACT);
     }
 
-    @Override
-    public BigDecimal parse(String expression) throws SyntaxException, LexerException {
-        List<Token> output = getParser().parse(expression);
+    /**
+     * @param mode numbers representation used for the evaluation
+     */
+    public Evaluator(NumericMode mode) {
+        this.mode = mode;
+    }
 
-        if(output.isEmpty()) {
-            return BigDecimal.ZERO;
-        }
+    /**
+     * Evaluates tokens as soon as they are streamed by {@link ShuntingYard}, so only operands waiting for their
+     * operators are kept in memory.
+     */
+    @Override
+    public BigDecimal parse(CharSequence expression) throws SyntaxException, LexerException {
+        return NumericMode.DOUBLE == mode ? parseDouble(expression) : parseExact(expression);
+    }
 
+    private BigDecimal parseExact(CharSequence expression) throws SyntaxException, LexerException {
         Deque<Operand> operandStack = new ArrayDeque<>();
-        for(Token token : output) {
+
+        shuntingYard.parse(expression, token -> {
             if(token instanceof Operand) {
                 operandStack.push((Operand) token);
             } else if(token instanceof UnaryOperatorToken) {
@@ -70,18 +86,74 @@ public final class Evaluator extends AbstractOutputTransformer<BigDecimal, Token
                 FunctionToken function = (FunctionToken)token;
                 operandStack.push(function.apply(getFunctionArguments(operandStack, function)));
             } else {
-                String message = String.format("Token %s can't be evaluated", token);
-                throw new IllegalStateException(message);
+                throw cantEvaluate(token);
             }
-        }
+        });
 
-        if(operandStack.size() == 1) {
+        if(operandStack.isEmpty()) {
+            return BigDecimal.ZERO;
+        } else if(operandStack.size() == 1) {
             return operandStack.pop().get().stripTrailingZeros();
         } else {
             throw new IllegalStateException("Evaluation failed. There are more operands on the stack than expected!");
         }
     }
 
+    /**
+     * Operands are kept on the primitive stack, which grows when needed
+     */
+    private BigDecimal parseDouble(CharSequence expression) throws SyntaxException, LexerException {
+        DoubleStack stack = new DoubleStack();
+
+        shuntingYard.parse(expression, token -> {
+            if(token instanceof Operand) {
+                stack.push(((Operand) token).get().doubleValue());
+            } else if(token instanceof UnaryOperatorToken) {
+                stack.values[stack.top] = ((UnaryOperatorToken) token).applyAsDouble(stack.values[stack.top]);
+            } else if(token instanceof BinaryOperatorToken) {
+                double last = stack.values[stack.top--];
+                stack.values[stack.top] = ((BinaryOperatorToken) token).applyAsDouble(last, stack.values[stack.top]);
+            } else if(token instanceof FunctionToken) {
+                FunctionToken function = (FunctionToken) token;
+                double result = function.applyAsDouble(stack.values, stack.top);
+                stack.top -= function.getExpectedArgCount();
+                stack.push(result);
+            } else {
+                throw cantEvaluate(token);
+            }
+        });
+
+        if(stack.top < 0) {
+            return BigDecimal.ZERO;
+        } else if(stack.top == 0) {
+            return BigDecimal.valueOf(NumericMode.requireFinite(stack.values[0])).stripTrailingZeros();
+        } else {
+            throw new IllegalStateException("Evaluation failed. There are more operands on the stack than expected!");
+        }
+    }
+
+    private static IllegalStateException cantEvaluate(Token token) {
+        if(token instanceof Variable) {
+            String message = String.format("Variable %s has no value. Use ExpressionCompiler to evaluate expressions with variables", token);
+            return new IllegalStateException(message);
+        }
+
+        String message = String.format("Token %s can't be evaluated", token);
+        return new IllegalStateException(message);
+    }
+
+    private static final class DoubleStack {
+        private double[] values = new double[INITIAL_STACK_SIZE];
+        private int top = -1;
+
+        private void push(double value) {
+            if(top + 1 == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[++top] = value;
+        }
+    }
+
     private Operand[] getFunctionArguments(Deque<Operand> operandStack, FunctionToken function) {
         return IntStream.range(0, function.getExpectedArgCount())
                 .mapToObj(i -> operandStack.pop())
@@ -26,39 +26,32 @@ package com.avispa.parser.shuntingyard.output;
 
 import com.avispa.parser.lexer.LexerException;
 import com.avispa.parser.misc.tree.TreeNode;
-import com.avispa.parser.output.AbstractOutputTransformer;
+import com.avispa.parser.output.OutputTransformer;
 import com.avispa.parser.precedence.parser.SyntaxException;
 import com.avispa.parser.shuntingyard.ShuntingYard;
 import com.avispa.parser.shuntingyard.token.BinaryOperatorToken;
 import com.avispa.parser.shuntingyard.token.FunctionToken;
 import com.avispa.parser.shuntingyard.token.Operand;
 import com.avispa.parser.shuntingyard.token.UnaryOperatorToken;
+import com.avispa.parser.shuntingyard.token.Variable;
 import com.avispa.parser.token.Token;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.List;
 
 /**
+ * Builds expression tree from tokens streamed by {@link ShuntingYard}
  * @author Rafał Hiszpański
  */
-public final class ExpressionTree extends AbstractOutputTransformer<TreeNode<Token>, Token> {
-
-    public ExpressionTree() {
-        super(new ShuntingYard());
-    }
+public final class ExpressionTree implements OutputTransformer<TreeNode<Token>> {
+    private final ShuntingYard shuntingYard = new ShuntingYard();
 
     @Override
-    public TreeNode<Token> parse(String expression) throws SyntaxException, LexerException {
-        List<Token> output = getParser().parse(expression);
-
-        if(output.isEmpty()) {
-            return null;
-        }
-
+    public TreeNode<Token> parse(CharSequence expression) throws SyntaxException, LexerException {
         Deque<TreeNode<Token>> nodeStack = new ArrayDeque<>();
-        for(Token token : output) {
-            if(token instanceof Operand) {
+
+        shuntingYard.parse(expression, token -> {
+            if(token instanceof Operand || token instanceof Variable) {
                 nodeStack.push(new TreeNode<>(token));
             } else if(token instanceof UnaryOperatorToken) {
                 pushArgumentNode(token, nodeStack, 1);
@@ -72,9 +65,9 @@ public final class ExpressionTree extends AbstractOutputTransformer<TreeNode<Tok
                 String message = String.format("Token %s can't be processed", token);
                 throw new IllegalStateException(message);
             }
-        }
+        });
 
-        return nodeStack.pop();
+        return nodeStack.peek(); // null for empty expression
     }
 
     private void pushArgumentNode(Token token, Deque<TreeNode<Token>> nodeStack, int args) {
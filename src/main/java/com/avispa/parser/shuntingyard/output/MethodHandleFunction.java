@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.shuntingyard.output;
+
+import com.avispa.parser.shuntingyard.token.BinaryOperatorToken;
+import com.avispa.parser.shuntingyard.token.FunctionToken;
+import com.avispa.parser.shuntingyard.token.UnaryOperatorToken;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Expression compiled to the tree of method handles. Every node of the tree is a handle of (double[])double type,
+ * operators are bound to their double operations as constants, so after the JIT customizes the tree, the whole
+ * formula is inlined into a single compiled method.
+ *
+ * @author Rafał Hiszpański
+ */
+final class MethodHandleFunction implements ToDoubleFunction<double[]> {
+    private static final MethodType NODE_TYPE = MethodType.methodType(double.class, double[].class);
+
+    private static final MethodHandle VARIABLE = MethodHandles.arrayElementGetter(double[].class);
+    private static final MethodHandle UNARY_OPERATION;
+    private static final MethodHandle BINARY_OPERATION;
+    private static final MethodHandle FUNCTION;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            UNARY_OPERATION = lookup.findVirtual(DoubleUnaryOperator.class, "applyAsDouble",
+                    MethodType.methodType(double.class, double.class));
+            BINARY_OPERATION = lookup.findVirtual(DoubleBinaryOperator.class, "applyAsDouble",
+                    MethodType.methodType(double.class, double.class, double.class));
+            FUNCTION = lookup.findVirtual(FunctionToken.class, "applyAsDouble",
+                    MethodType.methodType(double.class, double[].class, int.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final MethodHandle handle;
+    private final int variablesCount;
+
+    private MethodHandleFunction(MethodHandle handle, int variablesCount) {
+        this.handle = handle;
+        this.variablesCount = variablesCount;
+    }
+
+    static MethodHandleFunction from(MethodHandle handle, int variablesCount) {
+        return new MethodHandleFunction(handle, variablesCount);
+    }
+
+    /**
+     * @param values values of the variables in the order returned by {@link CompiledExpression#getVariables()}
+     * @return value of the expression
+     * @throws ArithmeticException when the value is not a finite number
+     */
+    @Override
+    public double applyAsDouble(double[] values) {
+        if(values.length != variablesCount) {
+            String message = String.format("Expected %d variable values. Got %d.", variablesCount, values.length);
+            throw new IllegalArgumentException(message);
+        }
+
+        try {
+            return NumericMode.requireFinite((double) handle.invokeExact(values));
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Evaluation of the compiled expression failed", e);
+        }
+    }
+
+    static MethodHandle constant(double value) {
+        return MethodHandles.dropArguments(MethodHandles.constant(double.class, value), 0, double[].class);
+    }
+
+    static MethodHandle variable(int index) {
+        return MethodHandles.insertArguments(VARIABLE, 1, index);
+    }
+
+    static MethodHandle unaryOperation(UnaryOperatorToken operator, MethodHandle operand) {
+        return MethodHandles.filterReturnValue(operand, UNARY_OPERATION.bindTo(operator.getDoubleOperation()));
+    }
+
+    /**
+     * @param last handle of the right-hand side operand, passed as the first argument like in the interpreted modes
+     * @param first handle of the left-hand side operand
+     */
+    static MethodHandle binaryOperation(BinaryOperatorToken operator, MethodHandle last, MethodHandle first) {
+        MethodHandle operation = BINARY_OPERATION.bindTo(operator.getDoubleOperation());
+        return join(MethodHandles.filterArguments(operation, 0, last, first), 2);
+    }
+
+    /**
+     * Arguments are collected into the array in the order they were pushed on the stack, so the function sees the
+     * same layout as the top of the operands stack.
+     *
+     * @param arguments argument handles in the order of pushing on the stack
+     */
+    static MethodHandle function(FunctionToken function, MethodHandle[] arguments) {
+        MethodHandle operation = MethodHandles.insertArguments(FUNCTION.bindTo(function), 1, arguments.length - 1)
+                .asCollector(double[].class, arguments.length);
+        return join(MethodHandles.filterArguments(operation, 0, arguments), arguments.length);
+    }
+
+    /**
+     * Merges all (double[]) parameters of the handle into the single one
+     */
+    private static MethodHandle join(MethodHandle handle, int parametersCount) {
+        return MethodHandles.permuteArguments(handle, NODE_TYPE, new int[parametersCount]);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.shuntingyard.output;
+
+/**
+ * Numbers representation used for the evaluation
+ *
+ * @author Rafał Hiszpański
+ */
+public enum NumericMode {
+    /**
+     * Operands are {@link java.math.BigDecimal} values. Each operation creates new operand.
+     */
+    EXACT,
+    /**
+     * Operands are IEEE 754 double precision values kept on the primitive stack. Operations do not allocate. Division
+     * is not rounded to the scale of the dividend and power accepts non-integer exponents. Infinite and NaN values are
+     * never returned - when the result is not a finite number (e.g. 1/0 or sqrt(-1)), {@link ArithmeticException} is
+     * thrown, like in the exact mode.
+     */
+    DOUBLE;
+
+    /**
+     * Applies the {@link #DOUBLE} mode contract to the result of the evaluation
+     * @param result value of the expression
+     * @return the same value
+     * @throws ArithmeticException when the value is not a finite number
+     */
+    static double requireFinite(double result) {
+        if(!Double.isFinite(result)) {
+            throw new ArithmeticException("Result is not a finite number: " + result);
+        }
+        return result;
+    }
+}
@@ -31,6 +31,7 @@ import lombok.Getter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
 
 /**
  * Binary operators
@@ -38,11 +39,11 @@ import java.util.function.BinaryOperator;
  */
 @Getter
 public enum BinaryOperatorToken implements MathOperator {
-    ADD("+", 1, OperatorAssociativity.LEFT, (b, a) -> Operand.from(a.get().add(b.get()))),
-    SUBTRACT("-", 1, OperatorAssociativity.LEFT, (b, a) -> Operand.from(a.get().subtract(b.get()))),
-    MULTIPLY("*", 2, OperatorAssociativity.LEFT, (b, a) -> Operand.from(a.get().multiply(b.get()))),
-    DIVIDE("/", 2, OperatorAssociativity.LEFT, (b, a) -> Operand.from(a.get().divide(b.get(), RoundingMode.HALF_UP))),
-    POWER("^", 3, OperatorAssociativity.RIGHT, applyPower());
+    ADD("+", 1, OperatorAssociativity.LEFT, (b, a) -> Operand.from(a.get().add(b.get())), (b, a) -> a + b),
+    SUBTRACT("-", 1, OperatorAssociativity.LEFT, (b, a) -> Operand.from(a.get().subtract(b.get())), (b, a) -> a - b),
+    MULTIPLY("*", 2, OperatorAssociativity.LEFT, (b, a) -> Operand.from(a.get().multiply(b.get())), (b, a) -> a * b),
+    DIVIDE("/", 2, OperatorAssociativity.LEFT, (b, a) -> Operand.from(a.get().divide(b.get(), RoundingMode.HALF_UP)), (b, a) -> a / b),
+    POWER("^", 3, OperatorAssociativity.RIGHT, applyPower(), (b, a) -> Math.pow(a, b));
 
     private static BinaryOperator<Operand> applyPower() {
         return (b, a) -> {
@@ -67,12 +68,14 @@ public enum BinaryOperatorToken implements MathOperator {
 
     @Getter(AccessLevel.NONE)
     private final BinaryOperator<Operand> operation;
+    private final DoubleBinaryOperator doubleOperation;
 
-    BinaryOperatorToken(final String value, final int precedence, final OperatorAssociativity associativity, BinaryOperator<Operand> operation) {
+    BinaryOperatorToken(final String value, final int precedence, final OperatorAssociativity associativity, BinaryOperator<Operand> operation, DoubleBinaryOperator doubleOperation) {
         this.value = value;
         this.precedence = precedence;
         this.associativity = associativity;
         this.operation = operation;
+        this.doubleOperation = doubleOperation;
     }
 
     public boolean isLeftAssociative() {
@@ -86,4 +89,11 @@ public enum BinaryOperatorToken implements MathOperator {
     public Operand apply(Operand a, Operand b) {
         return operation.apply(a, b);
     }
+
+    /**
+     * Arguments are in the same order as for {@link #apply(Operand, Operand)} - the right-hand side operand first
+     */
+    public double applyAsDouble(double a, double b) {
+        return doubleOperation.applyAsDouble(a, b);
+    }
 }
@@ -36,21 +36,24 @@ import java.util.function.Function;
  */
 @Getter
 public enum FunctionToken implements Token {
-	MODULO("mod", 2, args -> Operand.from(args[0].get().remainder(args[1].get()))),
-	SQRT("sqrt", 1, args -> Operand.from(args[0].get().sqrt(MathContext.DECIMAL32))),
-	MAX("max", 2, args -> Operand.from(args[0].get().max(args[1].get()))),
-	MIN("min", 2, args -> Operand.from(args[0].get().min(args[1].get())));
+	MODULO("mod", 2, args -> Operand.from(args[0].get().remainder(args[1].get())), (stack, top) -> stack[top] % stack[top - 1]),
+	SQRT("sqrt", 1, args -> Operand.from(args[0].get().sqrt(MathContext.DECIMAL32)), (stack, top) -> Math.sqrt(stack[top])),
+	MAX("max", 2, args -> Operand.from(args[0].get().max(args[1].get())), (stack, top) -> Math.max(stack[top], stack[top - 1])),
+	MIN("min", 2, args -> Operand.from(args[0].get().min(args[1].get())), (stack, top) -> Math.min(stack[top], stack[top - 1]));
 	
 	private final String value;
 	private final int expectedArgCount;
 
 	@Getter(AccessLevel.NONE)
 	private final Function<Operand[], Operand> operation;
+	@Getter(AccessLevel.NONE)
+	private final DoubleOperation doubleOperation;
 
-	FunctionToken(final String value, final int expectedArgCount, Function<Operand[], Operand> operation) {
+	FunctionToken(final String value, final int expectedArgCount, Function<Operand[], Operand> operation, DoubleOperation doubleOperation) {
 		this.value = value;
 		this.expectedArgCount = expectedArgCount;
 		this.operation = operation;
+		this.doubleOperation = doubleOperation;
 	}
 
 	public Operand apply(Operand[] arguments) {
@@ -61,4 +64,20 @@ public enum FunctionToken implements Token {
 
 		return operation.apply(arguments);
 	}
+
+	/**
+	 * Applies the function to arguments stored on the top of the operands stack. Arguments are read in the same order
+	 * as by {@link #apply(Operand[])} - first argument of the operation is on the top of the stack.
+	 * @param stack operands stack
+	 * @param top index of the top of the stack
+	 * @return function value
+	 */
+	public double applyAsDouble(double[] stack, int top) {
+		return doubleOperation.apply(stack, top);
+	}
+
+	@FunctionalInterface
+	private interface DoubleOperation {
+		double apply(double[] stack, int top);
+	}
 }
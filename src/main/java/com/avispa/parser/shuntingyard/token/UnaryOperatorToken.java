@@ -29,6 +29,7 @@ import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.math.BigDecimal;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.UnaryOperator;
 
 /**
@@ -37,8 +38,8 @@ import java.util.function.UnaryOperator;
  */
 @Getter
 public enum UnaryOperatorToken implements MathOperator {
-    PLUS("+", 3, OperatorAssociativity.RIGHT, a -> a),
-    MINUS("-", 3, OperatorAssociativity.RIGHT, a -> Operand.from(a.get().multiply(new BigDecimal("-1"))));
+    PLUS("+", 3, OperatorAssociativity.RIGHT, a -> a, a -> a),
+    MINUS("-", 3, OperatorAssociativity.RIGHT, a -> Operand.from(a.get().multiply(new BigDecimal("-1"))), a -> -a);
 
     private final String value;
     private final int precedence;
@@ -46,12 +47,14 @@ public enum UnaryOperatorToken implements MathOperator {
 
     @Getter(AccessLevel.NONE)
     private final UnaryOperator<Operand> operation;
+    private final DoubleUnaryOperator doubleOperation;
 
-    UnaryOperatorToken(final String value, final int precedence, final OperatorAssociativity associativity, UnaryOperator<Operand> operation) {
+    UnaryOperatorToken(final String value, final int precedence, final OperatorAssociativity associativity, UnaryOperator<Operand> operation, DoubleUnaryOperator doubleOperation) {
         this.value = value;
         this.precedence = precedence;
         this.associativity = associativity;
         this.operation = operation;
+        this.doubleOperation = doubleOperation;
     }
 
     public boolean isLeftAssociative() {
@@ -65,4 +68,8 @@ public enum UnaryOperatorToken implements MathOperator {
     public Operand apply(Operand a) {
         return operation.apply(a);
     }
+
+    public double applyAsDouble(double a) {
+        return doubleOperation.applyAsDouble(a);
+    }
 }
@@ -30,107 +30,256 @@ import com.avispa.parser.shuntingyard.token.FunctionToken;
 import com.avispa.parser.shuntingyard.token.Misc;
 import com.avispa.parser.shuntingyard.token.Operand;
 import com.avispa.parser.shuntingyard.token.UnaryOperatorToken;
+import com.avispa.parser.shuntingyard.token.Variable;
 import com.avispa.parser.token.Token;
-import lombok.extern.slf4j.Slf4j;
+import com.avispa.parser.trace.Tracing;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
+ * Input is scanned once by position. Tokens are found using the table indexed by the first character of their
+ * spelling, and operands are read digit by digit, so no substrings of the expression are created. Tokens can be read
+ * one by one from {@link TokenStream} without building the list.
+ *
+ * Identifiers are functions when they match function name, otherwise they are {@link Variable}s. Whitespaces are not
+ * significant in the expression, also inside operands, except that they end an identifier - "rate time" are two
+ * variables, not one.
+ *
  * @author Rafał Hiszpański
  */
-@Slf4j
 public class Tokenizer {
-    private static final Pattern operandPattern = Pattern.compile("^((\\d+(\\.\\d*)?)|(\\.\\d+))");
+    private static final int NO_MATCH = -1;
+    private static final int DISPATCH_SIZE = 128;
+    private static final int MAX_LONG_DIGITS = 18;
 
-    public List<Token> tokenize(String expression) throws LexerException {
-        List<Token> tokens = new ArrayList<>();
-        
-        expression = expression.replaceAll("\\s+","");
+    /**
+     * Tokens which spelling starts with the character, in the order they are tried: unary operators, binary operators
+     * and misc tokens. Functions are recognized as identifiers.
+     */
+    private static final Token[][] dispatchTable = buildDispatchTable();
 
-        log.debug("Expression: \"{}\"", expression);
+    private static final Map<String, FunctionToken> functions = Arrays.stream(FunctionToken.values())
+            .collect(Collectors.toMap(FunctionToken::getValue, Function.identity()));
 
-        while(!expression.isEmpty()) {
-            boolean tokenFound = searchFunctions(expression, tokens) ||
-                                 searchUnaryOperators(expression, tokens) ||
-                                 searchBinaryOperators(expression, tokens) ||
-                                 searchMisc(expression, tokens) ||
-                                 searchOperands(expression, tokens);
+    private static Token[][] buildDispatchTable() {
+        List<List<Token>> candidates = new ArrayList<>(DISPATCH_SIZE);
+        for(int c = 0; c < DISPATCH_SIZE; c++) {
+            candidates.add(new ArrayList<>());
+        }
 
-            if(tokenFound) {
-                expression = expression.substring(tokens.get(tokens.size() - 1).getValue().length());
-            } else {
-                throw new LexerException("Unknown token starting from \"" + expression + "\"");
-            }
+        Stream.of(UnaryOperatorToken.values(), BinaryOperatorToken.values(), Misc.values())
+                .flatMap(Stream::of)
+                .forEach(token -> candidates.get(token.getValue().charAt(0)).add(token));
+
+        Token[][] table = new Token[DISPATCH_SIZE][];
+        for(int c = 0; c < DISPATCH_SIZE; c++) {
+            table[c] = candidates.get(c).toArray(new Token[0]);
+        }
+        return table;
+    }
+
+    public List<Token> tokenize(CharSequence expression) throws LexerException {
+        List<Token> tokens = new ArrayList<>();
+
+        TokenStream stream = stream(expression);
+        for(Token token = stream.next(); null != token; token = stream.next()) {
+            tokens.add(token);
         }
-        
+
         return tokens;
     }
 
-    private boolean searchFunctions(String expression, List<Token> tokens) {
-        return searchEnumSymbols(FunctionToken.class, expression, tokens);
+    /**
+     * Creates stream reading tokens of the expression one by one on demand
+     * @param expression input expression
+     * @return new token stream
+     */
+    public TokenStream stream(CharSequence expression) {
+        if(Tracing.ENABLED) {
+            Tracing.trace(Tokenizer.class, "Expression: \"{}\"", expression);
+        }
+
+        return new TokenStream(expression);
     }
 
-    private boolean searchUnaryOperators(String expression, List<Token> tokens) {
-        Token foundToken = searchToken(UnaryOperatorToken.class, expression);
+    /**
+     * Lazily tokenized expression. Keeps only the current position and the last token, which decides if plus or
+     * minus sign is an unary operator.
+     */
+    public static final class TokenStream {
+        private final CharSequence expression;
+        private int position;
+        private Token lastToken;
 
-        if(null != foundToken && isUnaryOperator(tokens)) {
-            tokens.add(foundToken);
-            return true;
+        private TokenStream(CharSequence expression) {
+            this.expression = expression;
+            this.position = skipWhitespaces(expression, 0);
         }
 
-        return false;
-    }
+        /**
+         * @return next token or null if the end of the expression is reached
+         */
+        public Token next() throws LexerException {
+            int length = expression.length();
+            if(position == length) {
+                return null;
+            }
+
+            char c = expression.charAt(position);
+            int end;
+            if(isDigit(c) || c == '.') {
+                end = readOperand();
+            } else if(isIdentifierStart(c)) {
+                end = readIdentifier();
+            } else {
+                end = readSymbol();
+            }
+            if(end == NO_MATCH) {
+                throw new LexerException("Unknown token starting from \"" + expression.subSequence(position, length) + "\"");
+            }
 
-    private boolean isUnaryOperator(List<Token> tokens) {
-        if(!tokens.isEmpty()) {
-            Token lastToken = tokens.get(tokens.size() -1);
-            return lastToken instanceof BinaryOperatorToken || lastToken.equals(Misc.LEFT_PARENTHESIS);
+            position = skipWhitespaces(expression, end);
+            return lastToken;
         }
 
-        return true;
-    }
+        /**
+         * @return position after the token or {@link #NO_MATCH}
+         */
+        private int readSymbol() {
+            char c = expression.charAt(position);
+            if(c >= DISPATCH_SIZE) {
+                return NO_MATCH;
+            }
 
-    private boolean searchBinaryOperators(String expression, List<Token> tokens) {
-        return searchEnumSymbols(BinaryOperatorToken.class, expression, tokens);
-    }
+            for(Token candidate : dispatchTable[c]) {
+                if(candidate instanceof UnaryOperatorToken && !isUnaryOperatorExpected()) {
+                    continue;
+                }
 
-    private boolean searchMisc(String expression, List<Token> tokens) {
-        return searchEnumSymbols(Misc.class, expression, tokens);
-    }
+                int end = match(expression, position, candidate.getValue());
+                if(end != NO_MATCH) {
+                    lastToken = candidate;
+                    return end;
+                }
+            }
+
+            return NO_MATCH;
+        }
+
+        /**
+         * Reads identifier in the form of <code>[A-Za-z_][A-Za-z0-9_]*</code>. Identifiers spelled as a function are
+         * functions, all others are variables.
+         *
+         * @return position after the identifier
+         */
+        private int readIdentifier() {
+            StringBuilder name = new StringBuilder();
+
+            int end = position;
+            while(end < expression.length() && (isIdentifierStart(expression.charAt(end)) || isDigit(expression.charAt(end)))) {
+                name.append(expression.charAt(end++)); // unlike in numbers, whitespace ends the identifier
+            }
+
+            String identifier = name.toString();
+            FunctionToken function = functions.get(identifier);
+            lastToken = null != function ? function : Variable.of(identifier);
 
-    private <E extends Enum<E> & Token> boolean searchEnumSymbols(Class<E> enumToken, String expression, List<Token> tokens) {
-        Token foundToken = searchToken(enumToken, expression);
+            return end;
+        }
 
-        if(null != foundToken) {
-            tokens.add(foundToken);
-            return true;
+        private boolean isUnaryOperatorExpected() {
+            return null == lastToken || lastToken instanceof BinaryOperatorToken || lastToken.equals(Misc.LEFT_PARENTHESIS);
         }
 
-        return false;
+        /**
+         * Reads operand in the form of <code>(\d+(\.\d*)?)|(\.\d+)</code>. Value is accumulated while reading,
+         * operands with more digits than fits into long are copied and parsed by {@link BigDecimal}.
+         *
+         * @return position after the operand or {@link #NO_MATCH}
+         */
+        private int readOperand() {
+            long unscaled = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean fraction = false;
+
+            int end = position;
+            int i = position;
+            while(i < expression.length()) {
+                char c = expression.charAt(i);
+                if(isDigit(c)) {
+                    unscaled = unscaled * 10 + (c - '0');
+                    digits++;
+                    if(fraction) {
+                        scale++;
+                    }
+                } else if(c == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+                end = i + 1;
+                i = skipWhitespaces(expression, end);
+            }
+
+            if(digits == 0) { // single dot
+                return NO_MATCH;
+            }
+
+            if(digits <= MAX_LONG_DIGITS) {
+                lastToken = Operand.from(BigDecimal.valueOf(unscaled, scale));
+            } else {
+                lastToken = Operand.from(copyWithoutWhitespaces(expression, position, end));
+            }
+
+            return end;
+        }
     }
 
-    private <E extends Enum<E> & Token> Token searchToken(Class<E> enumToken, String expression) {
-        Token foundToken = null;
-        for(E token : enumToken.getEnumConstants()) {
-            if(expression.startsWith(token.getValue())) {
-                foundToken = token;
-                break;
+    /**
+     * @return position after the spelling or {@link #NO_MATCH}
+     */
+    private static int match(CharSequence expression, int position, String spelling) {
+        for(int i = 0; i < spelling.length(); i++) {
+            position = skipWhitespaces(expression, position);
+            if(position == expression.length() || expression.charAt(position) != spelling.charAt(i)) {
+                return NO_MATCH;
             }
+            position++;
         }
-        return foundToken;
+        return position;
     }
 
-    private boolean searchOperands(String expression, List<Token> tokens) {
-        Matcher matcher = operandPattern.matcher(expression);
+    private static String copyWithoutWhitespaces(CharSequence expression, int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        for(int i = start; i < end; i++) {
+            char c = expression.charAt(i);
+            if(!Character.isWhitespace(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
 
-        if(matcher.find()) {
-            tokens.add(Operand.from(matcher.group()));
-            return true;
+    private static int skipWhitespaces(CharSequence expression, int position) {
+        while(position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+            position++;
         }
+        return position;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
 
-        return false;
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
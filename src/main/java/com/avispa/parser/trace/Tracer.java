@@ -0,0 +1,44 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.trace;
+
+/**
+ * Receives trace events from the parsing path (parser shifts and reductions, precedence checks, lexemes and tokens).
+ * Events are emitted only when {@link Tracing#ENABLED} is set, so the implementation is never called in production
+ * runs. Messages use SLF4J style placeholders.
+ *
+ * @author Rafał Hiszpański
+ */
+@FunctionalInterface
+public interface Tracer {
+    Tracer NO_OP = (source, message, arguments) -> {};
+
+    /**
+     * @param source class emitting the event
+     * @param message message with {} placeholders
+     * @param arguments values of the placeholders
+     */
+    void trace(Class<?> source, String message, Object... arguments);
+}
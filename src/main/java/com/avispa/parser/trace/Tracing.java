@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.trace;
+
+import java.util.Objects;
+
+/**
+ * Switch and holder of the tracer used on the parsing path. Call sites are written as
+ * <pre>
+ * if(Tracing.ENABLED) {
+ *     Tracing.trace(Parser.class, "Shifting {}", lexeme);
+ * }
+ * </pre>
+ * {@link #ENABLED} is read once from the {@code avispa.parser.tracing} system property when the class is
+ * initialized. Being a static final field, it is treated as a constant by the JIT compiler and disabled trace blocks
+ * are removed from the compiled code together with the arguments evaluation.
+ *
+ * @author Rafał Hiszpański
+ */
+public final class Tracing {
+    public static final String PROPERTY = "avispa.parser.tracing";
+
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static volatile Tracer tracer = new Slf4jTracer();
+
+    private Tracing() {
+    }
+
+    /**
+     * Replaces the tracer receiving events. Has no effect on the parsing path when tracing is disabled.
+     * @param tracer new tracer
+     */
+    public static void setTracer(Tracer tracer) {
+        Tracing.tracer = Objects.requireNonNull(tracer);
+    }
+
+    public static Tracer getTracer() {
+        return tracer;
+    }
+
+    public static void trace(Class<?> source, String message, Object... arguments) {
+        tracer.trace(source, message, arguments);
+    }
+}
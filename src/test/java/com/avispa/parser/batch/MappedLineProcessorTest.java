@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.batch;
+
+import com.avispa.parser.precedence.ParserUtil;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.parser.PrecedenceParser;
+import com.avispa.parser.shuntingyard.output.Evaluator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class MappedLineProcessorTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void givenExpressionsFile_whenProcess_thenEachLineEvaluated() throws IOException {
+        // given
+        Path input = write("2+3\n2*4\r\n(1\n\n10/5");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        long lines = new MappedLineProcessor<>(new Evaluator(), BigDecimal::toPlainString).process(input, Channels.newChannel(output));
+
+        // then
+        assertEquals(5, lines);
+        assertEquals(List.of("5", "8", MappedLineProcessor.ERROR_PREFIX + "Mismatched parentheses!", "0", "2"), readLines(output));
+    }
+
+    @Test
+    void givenFileLongerThanSegment_whenProcess_thenSegmentsEndAtLineEnds() throws IOException {
+        // given
+        Path input = write("1+1\n2+2\n3+3\n4+4\n");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        long lines = new MappedLineProcessor<>(new Evaluator(), BigDecimal::toPlainString, 10).process(input, Channels.newChannel(output));
+
+        // then
+        assertEquals(4, lines);
+        assertEquals(List.of("2", "4", "6", "8"), readLines(output));
+    }
+
+    @Test
+    void givenLineLongerThanSegment_whenProcess_thenThrowException() throws IOException {
+        // given
+        Path input = write("1+1+1+1+1\n");
+        MappedLineProcessor<BigDecimal> processor = new MappedLineProcessor<>(new Evaluator(), BigDecimal::toPlainString, 4);
+
+        // when/then
+        assertThrows(IOException.class, () -> processor.process(input, Channels.newChannel(new ByteArrayOutputStream())));
+    }
+
+    @Test
+    void givenPrecedenceParser_whenProcess_thenProductionsWrittenForEachLine() throws IOException {
+        // given
+        PrecedenceParser<Production> parser = ParserUtil.getSampleParser();
+        Path input = write("a\nab");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // when
+        new MappedLineProcessor<>(parser::parse, productions -> String.valueOf(productions.size())).process(input, Channels.newChannel(output));
+
+        // then
+        List<String> lines = readLines(output);
+        assertEquals("1", lines.get(0));
+        assertTrue(lines.get(1).startsWith(MappedLineProcessor.ERROR_PREFIX));
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(tempDir.resolve("input.txt"), content, StandardCharsets.US_ASCII);
+    }
+
+    private List<String> readLines(ByteArrayOutputStream output) {
+        return output.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+}
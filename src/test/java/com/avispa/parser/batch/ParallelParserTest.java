@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.batch;
+
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
+import com.avispa.parser.precedence.grammar.GrammarFile;
+import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.parser.ParserCreationException;
+import com.avispa.parser.precedence.parser.ParserFactory;
+import com.avispa.parser.precedence.parser.PrecedenceParser;
+import com.avispa.parser.precedence.parser.SyntaxException;
+import com.avispa.parser.shuntingyard.ShuntingYard;
+import com.avispa.parser.token.Token;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.avispa.parser.precedence.TestSymbols.expression_prime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class ParallelParserTest {
+
+    @Test
+    void givenManyInputs_whenParseAll_thenResultsInInputOrder() throws IncorrectGrammarException, IOException, ParserCreationException, SyntaxException, LexerException {
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/simple-precedence-grammar.txt");
+        PrecedenceParser<Production> parser = ParserFactory.newSimplePrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression_prime));
+
+        List<String> inputs = new ArrayList<>();
+        for(int i = 0; i < 500; i++) {
+            inputs.add(i % 10 + "+" + (i / 10) % 10 + "*" + i % 7);
+        }
+
+        // when
+        List<ParseResult<Production>> results = new ParallelParser<>(parser, new ForkJoinPool(4)).parseAll(inputs);
+
+        // then
+        assertEquals(inputs.size(), results.size());
+        for(int i = 0; i < inputs.size(); i++) {
+            assertEquals(inputs.get(i), results.get(i).getInput());
+            assertEquals(parser.parse(inputs.get(i)), results.get(i).getOutput());
+        }
+    }
+
+    @Test
+    void givenIncorrectInput_whenParseAll_thenErrorCollectedForThatInput() {
+        // when
+        List<ParseResult<Token>> results = new ParallelParser<>(new ShuntingYard()).parseAll(List.of("1+2", "(1+2", "3*4"));
+
+        // then
+        assertTrue(results.get(0).isSuccessful());
+        assertFalse(results.get(1).isSuccessful());
+        assertInstanceOf(SyntaxException.class, results.get(1).getError());
+        assertTrue(results.get(2).isSuccessful());
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.function;
+
+import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
+import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.GrammarFile;
+import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.Terminal;
+import com.avispa.parser.precedence.table.OperatorPrecedenceTable;
+import com.avispa.parser.precedence.table.PrecedenceTableException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static com.avispa.parser.precedence.TestSymbols.expression;
+import static com.avispa.parser.precedence.TestSymbols.mul;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class ArrayPrecedenceFunctionsTest {
+
+    @Test
+    void givenGraphPrecedenceFunctions_whenArrayFunctionsCreated_thenValuesAreTheSame() throws IncorrectGrammarException, PrecedenceFunctionsException, PrecedenceTableException, IOException {
+        // given
+        Grammar grammar = ContextFreeGrammar.fromWithBoundaryMarker(new GrammarFile("src/test/resources/grammar/operator-precedence-grammar.txt"), expression);
+        GraphPrecedenceFunctions graphFunctions = new GraphPrecedenceFunctions(new OperatorPrecedenceTable(grammar));
+
+        // when
+        ArrayPrecedenceFunctions functions = ArrayPrecedenceFunctions.of(graphFunctions, grammar.getSymbolTable());
+
+        // then
+        for(Symbol symbol : grammar.getSymbolTable().getSymbols()) {
+            assertEquals(graphFunctions.getFFor(symbol), functions.getFFor(symbol.getId()));
+            assertEquals(graphFunctions.getGFor(symbol), functions.getGFor(symbol.getId()));
+        }
+        assertEquals(3, functions.getGFor(mul));
+    }
+
+    @Test
+    void givenUnknownSymbol_whenGettingFunctionValue_thenNoRelationReturned() throws IncorrectGrammarException, PrecedenceFunctionsException, PrecedenceTableException, IOException {
+        // given
+        Grammar grammar = ContextFreeGrammar.fromWithBoundaryMarker(new GrammarFile("src/test/resources/grammar/operator-precedence-grammar.txt"), expression);
+        ArrayPrecedenceFunctions functions = ArrayPrecedenceFunctions.of(new GraphPrecedenceFunctions(new OperatorPrecedenceTable(grammar)), grammar.getSymbolTable());
+
+        // when
+        int f = functions.getFFor(Terminal.of("unknown", "u"));
+
+        // then
+        assertEquals(PrecedenceFunctions.NO_RELATION, f);
+    }
+}
@@ -41,6 +41,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static com.avispa.parser.precedence.TestSymbols.add;
@@ -155,6 +156,30 @@ class GraphPrecedenceFunctionsTest {
         assertEquals(2, functions.getGFor(number));
     }
 
+    @Test
+    void givenChainOfEqualsRelations_whenPrecedenceFunctionsCreated_thenAllSymbolsFused() throws PrecedenceFunctionsException {
+        // given
+        SimplePrecedenceTable precedenceTable = Mockito.mock(SimplePrecedenceTable.class);
+
+        Map<Pair<Symbol, Symbol>, Precedence> data = new LinkedHashMap<>();
+        data.put(Pair.of(add, mul), Precedence.EQUALS);
+        data.put(Pair.of(lpar, rpar), Precedence.EQUALS);
+        data.put(Pair.of(add, rpar), Precedence.EQUALS); // joins both nodes created before
+        data.put(Pair.of(lpar, number), Precedence.GREATER_THAN);
+
+        when(precedenceTable.get()).thenReturn(data);
+
+        // when
+        GraphPrecedenceFunctions functions = new GraphPrecedenceFunctions(precedenceTable);
+
+        // then
+        assertEquals(1, functions.getFFor(add));
+        assertEquals(1, functions.getFFor(lpar));
+        assertEquals(1, functions.getGFor(mul));
+        assertEquals(1, functions.getGFor(rpar));
+        assertEquals(0, functions.getGFor(number));
+    }
+
     @Test
     void givenOperatorPrecedenceGrammar_whenPrecedenceFunctionsCreated_thenTheyExistAndAreCorrect() throws IncorrectGrammarException, PrecedenceFunctionsException, PrecedenceTableException, IOException {
         // given
@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.function;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class UnionFindTest {
+
+    @Test
+    void givenTransitiveUnions_whenFind_thenSameRepresentative() {
+        // given
+        UnionFind unionFind = new UnionFind(6);
+
+        // when
+        unionFind.union(0, 1);
+        unionFind.union(2, 3);
+        unionFind.union(1, 3);
+
+        // then
+        assertEquals(unionFind.find(0), unionFind.find(2));
+        assertEquals(unionFind.find(1), unionFind.find(3));
+        assertNotEquals(unionFind.find(0), unionFind.find(4));
+        assertEquals(5, unionFind.find(5));
+    }
+
+    @Test
+    void givenElementsInSameSet_whenUnion_thenNothingMerged() {
+        // given
+        UnionFind unionFind = new UnionFind(3);
+        unionFind.union(0, 1);
+
+        // when
+        boolean merged = unionFind.union(1, 0);
+
+        // then
+        assertFalse(merged);
+        assertTrue(unionFind.union(1, 2));
+    }
+}
@@ -26,6 +26,7 @@ package com.avispa.parser.precedence.grammar;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -35,6 +36,7 @@ import static com.avispa.parser.precedence.TestSymbols.C;
 import static com.avispa.parser.precedence.TestSymbols.a;
 import static com.avispa.parser.precedence.TestSymbols.b;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -81,6 +83,28 @@ class ContextFreeGrammarTest {
         assertEquals(A, grammar.getStart());
     }
 
+    @Test
+    void givenBasicGrammar_whenCreateGrammar_thenSymbolsInterned() throws IncorrectGrammarException {
+        // given
+        Set<Terminal> terminals = new LinkedHashSet<>(List.of(a, b));
+
+        List<Production> productions = List.of(Production.of(A, List.of(B, a, a)), Production.of(B, List.of(b)));
+
+        // when
+        ContextFreeGrammar grammar = ContextFreeGrammar.from("Test", terminals, productions, A);
+
+        // then
+        SymbolTable symbolTable = grammar.getSymbolTable();
+        assertEquals(List.of(a, b, A, B), symbolTable.getSymbols());
+        assertEquals(2, symbolTable.getTerminalCount());
+
+        Production first = grammar.getProduction(0);
+        assertSame(first.getRhs().get(1), first.getRhs().get(2));
+        assertSame(first.getRhs().get(0), grammar.getProduction(1).getLhs());
+        assertSame(grammar.getStart(), first.getLhs());
+        assertEquals(1, symbolTable.getId(b));
+    }
+
     @Test
     void givenProductionsWithIncorrectStartToken_whenCreateGrammar_thenThrowException() {
         // given
@@ -28,18 +28,25 @@ import com.avispa.parser.lexer.LexerException;
 import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
 import com.avispa.parser.precedence.grammar.GrammarFile;
 import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import com.avispa.parser.precedence.grammar.Production;
+import com.avispa.parser.precedence.grammar.Terminal;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import static com.avispa.parser.precedence.TestSymbols.A;
 import static com.avispa.parser.precedence.TestSymbols.add;
 import static com.avispa.parser.precedence.TestSymbols.expression;
+import static com.avispa.parser.precedence.TestSymbols.marker;
 import static com.avispa.parser.precedence.TestSymbols.number;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Rafał Hiszpański
@@ -70,6 +77,26 @@ class LexerTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    void givenInputWithBoundaryMarkers_whenTokenize_thenMarkersReturnedAroundLexemes() throws LexerException {
+        // given
+        CharSequence input = new StringBuilder("2+3");
+        Lexer lexer = new Lexer(input, grammar, true);
+
+        List<Lexeme> expected = List.of(
+                Lexeme.of("$", marker, 1),
+                Lexeme.of("2", number, 1),
+                Lexeme.of("+", add, 1),
+                Lexeme.of("3", number, 2),
+                Lexeme.of("$", marker, 2));
+
+        // when
+        List<Lexeme> result = getLexemes(lexer);
+
+        // then
+        assertEquals(expected, result);
+    }
+
     @Test
     void givenInputWithUnknownToken_whenTokenize_thenThrowException() {
         // given
@@ -80,6 +107,157 @@ class LexerTest {
         assertThrows(LexerException.class, () -> getLexemes(lexer));
     }
 
+    @Test
+    void givenTerminalNotSupportedByAutomaton_whenTokenize_thenRegularExpressionsUsed() throws IncorrectGrammarException, LexerException {
+        // given
+        Terminal lookahead = Terminal.of("LOOKAHEAD", "a(?=b)");
+        Terminal b = Terminal.of("B", "b");
+        ContextFreeGrammar lookaheadGrammar = ContextFreeGrammar.from("Test", Set.of(lookahead, b), List.of(Production.of(A, List.of(lookahead, b))), A);
+        Lexer lexer = new Lexer("ab", lookaheadGrammar);
+
+        List<Lexeme> expected = List.of(
+                Lexeme.of("a", lookahead, 1),
+                Lexeme.of("b", b, 1));
+
+        // when
+        List<Lexeme> result = getLexemes(lexer);
+
+        // then
+        assertTrue(lookaheadGrammar.getLexerAutomaton().isEmpty());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void givenTerminalWithOverlappingAlternatives_whenTokenize_thenFirstMatchingAlternativeUsed() throws IncorrectGrammarException, LexerException {
+        // given
+        Terminal t = Terminal.of("T", "a|ab");
+        Terminal b = Terminal.of("B", "b");
+        ContextFreeGrammar alternativesGrammar = ContextFreeGrammar.from("Test", Set.of(t, b), List.of(Production.of(A, List.of(t, b))), A);
+        Lexer lexer = new Lexer("ab", alternativesGrammar);
+
+        List<Lexeme> expected = List.of(
+                Lexeme.of("a", t, 1),
+                Lexeme.of("b", b, 1));
+
+        // when
+        List<Lexeme> result = getLexemes(lexer);
+
+        // then
+        assertTrue(alternativesGrammar.getLexerAutomaton().isPresent());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void givenTerminalRepeatingEmptyMatch_whenTokenize_thenRegularExpressionsUsed() throws IncorrectGrammarException, LexerException {
+        // given
+        Terminal t = Terminal.of("T", "(?:x?|y)*");
+        Terminal y = Terminal.of("Y", "y");
+        ContextFreeGrammar repetitionGrammar = ContextFreeGrammar.from("Test", Set.of(t, y), List.of(Production.of(A, List.of(t, y))), A);
+        Lexer lexer = new Lexer("xy", repetitionGrammar);
+
+        List<Lexeme> expected = List.of(
+                Lexeme.of("x", t, 1),
+                Lexeme.of("y", y, 1));
+
+        // when
+        List<Lexeme> result = getLexemes(lexer);
+
+        // then
+        assertTrue(repetitionGrammar.getLexerAutomaton().isEmpty());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    void givenInputInChunks_whenTokenize_thenLexemesSpanningChunksRecognized() throws IncorrectGrammarException, LexerException {
+        // given
+        Terminal numbers = Terminal.of("NUMBERS", "[0-9]+");
+        ContextFreeGrammar chunkGrammar = ContextFreeGrammar.from("Test", Set.of(numbers, add), List.of(Production.of(A, List.of(numbers, add, numbers))), A);
+        Lexer lexer = new Lexer(chunkGrammar, false);
+
+        // when
+        lexer.feed("12");
+        List<Lexeme> afterFirstChunk = getAvailableLexemes(lexer);
+        lexer.feed("3+4");
+        List<Lexeme> afterSecondChunk = getAvailableLexemes(lexer);
+        lexer.feed("5");
+        lexer.finish();
+        List<Lexeme> afterFinish = getAvailableLexemes(lexer);
+
+        // then
+        assertEquals(List.of(), afterFirstChunk);
+        assertEquals(List.of(Lexeme.of("123", numbers, 1), Lexeme.of("+", add, 1)), afterSecondChunk);
+        assertEquals(3, afterSecondChunk.get(1).getOffset());
+        assertEquals(List.of(Lexeme.of("45", numbers, 2)), afterFinish);
+        assertEquals(4, afterFinish.get(0).getOffset());
+    }
+
+    @Test
+    void givenInputInChunksBeyondIntRange_whenTokenize_thenOffsetsNotWrapped() throws IncorrectGrammarException, LexerException {
+        // given
+        Terminal numbers = Terminal.of("NUMBERS", "[0-9]+");
+        ContextFreeGrammar chunkGrammar = ContextFreeGrammar.from("Test", Set.of(numbers, add), List.of(Production.of(A, List.of(numbers, add, numbers))), A);
+        long startOffset = Integer.MAX_VALUE - 2L;
+        Lexer lexer = new Lexer(chunkGrammar, false, Lexer.DEFAULT_MAX_LEXEME_LENGTH, startOffset);
+
+        // when
+        lexer.feed("1+1");
+        List<Lexeme> afterFirstChunk = getAvailableLexemes(lexer);
+        lexer.feed("+1");
+        lexer.finish();
+        List<Lexeme> afterFinish = getAvailableLexemes(lexer);
+
+        // then
+        List<Lexeme> lexemes = new ArrayList<>(afterFirstChunk);
+        lexemes.addAll(afterFinish);
+        assertEquals(List.of(Lexeme.of("1", numbers, 1), Lexeme.of("+", add, 1), Lexeme.of("1", numbers, 2),
+                Lexeme.of("+", add, 2), Lexeme.of("1", numbers, 3)), lexemes);
+        for(int i = 0; i < lexemes.size(); i++) {
+            assertEquals(startOffset + i, lexemes.get(i).getOffset());
+        }
+        assertEquals(Integer.MAX_VALUE + 3L, lexemes.get(4).getEndOffset());
+    }
+
+    @Test
+    void givenLexemeLongerThanLimit_whenTokenizeChunks_thenThrowException() throws IncorrectGrammarException {
+        // given
+        Terminal numbers = Terminal.of("NUMBERS", "[0-9]+");
+        ContextFreeGrammar chunkGrammar = ContextFreeGrammar.from("Test", Set.of(numbers), List.of(Production.of(A, List.of(numbers))), A);
+        Lexer lexer = new Lexer(chunkGrammar, false, 3);
+
+        // when
+        lexer.feed("1234");
+
+        // then
+        assertThrows(LexerException.class, lexer::hasNext);
+    }
+
+    @Test
+    void givenInputInChunksAndRegularExpressions_whenTokenize_thenLexemeWaitsForLookahead() throws IncorrectGrammarException, LexerException {
+        // given
+        Terminal lookahead = Terminal.of("LOOKAHEAD", "a(?=b)");
+        Terminal b = Terminal.of("B", "b");
+        ContextFreeGrammar lookaheadGrammar = ContextFreeGrammar.from("Test", Set.of(lookahead, b), List.of(Production.of(A, List.of(lookahead, b))), A);
+        Lexer lexer = new Lexer(lookaheadGrammar, false);
+
+        // when
+        lexer.feed("a");
+        boolean availableAfterFirstChunk = lexer.hasNext();
+        lexer.feed("b");
+        lexer.finish();
+
+        // then
+        assertFalse(availableAfterFirstChunk);
+        assertEquals(List.of(Lexeme.of("a", lookahead, 1), Lexeme.of("b", b, 1)), getAvailableLexemes(lexer));
+    }
+
+    private List<Lexeme> getAvailableLexemes(Lexer lexer) throws LexerException {
+        List<Lexeme> result = new ArrayList<>();
+        while(lexer.hasNext()) {
+            result.add(lexer.getNext());
+        }
+        return result;
+    }
+
     private List<Lexeme> getLexemes(Lexer lexer) throws LexerException {
         List<Lexeme> result = new ArrayList<>();
         while(lexer.hasCharactersLeft()) {
@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.lexer.automaton;
+
+import com.avispa.parser.precedence.grammar.Terminal;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class LexerAutomatonTest {
+    private static final Terminal keyword = Terminal.of("IF", "if");
+    private static final Terminal identifier = Terminal.of("IDENTIFIER", "[a-z_][a-z0-9_]*");
+    private static final Terminal number = Terminal.of("NUMBER", "\\d+(?:\\.\\d+)?");
+    private static final Terminal operator = Terminal.of("OPERATOR", "\\+|-|\\*\\*?");
+
+    @Test
+    void givenMultipleTerminals_whenMatch_thenLongestMatchReturned() throws UnsupportedRegexException {
+        // given
+        LexerAutomaton automaton = LexerAutomaton.compile(List.of(keyword, identifier, number, operator));
+
+        // when/then
+        assertMatch(automaton, "ifx+1", 0, identifier, 3);
+        assertMatch(automaton, "12.50*", 0, number, 5);
+        assertMatch(automaton, "12.*", 0, number, 2);
+        assertMatch(automaton, "a**2", 1, operator, 2);
+    }
+
+    @Test
+    void givenTerminalsMatchingSameLength_whenMatch_thenFirstTerminalWins() throws UnsupportedRegexException {
+        // given
+        LexerAutomaton keywordFirst = LexerAutomaton.compile(List.of(keyword, identifier));
+        LexerAutomaton identifierFirst = LexerAutomaton.compile(List.of(identifier, keyword));
+
+        // when/then
+        assertMatch(keywordFirst, "if", 0, keyword, 2);
+        assertMatch(identifierFirst, "if", 0, identifier, 2);
+    }
+
+    @Test
+    void givenBoundedRepetitionAndNegatedClass_whenMatch_thenCorrectLength() throws UnsupportedRegexException {
+        // given
+        Terminal code = Terminal.of("COUNTRY_CODE", "[A-Z]{2}");
+        Terminal text = Terminal.of("TEXT", "\"[^\"\\n]*\"");
+        LexerAutomaton automaton = LexerAutomaton.compile(List.of(code, text));
+
+        // when/then
+        assertMatch(automaton, "PLN", 0, code, 2);
+        assertMatch(automaton, "\"a b\" c", 0, text, 5);
+        assertEquals(LexerAutomaton.NO_MATCH, automaton.longestMatch("P1", 0));
+        assertEquals(LexerAutomaton.NO_MATCH, automaton.longestMatch("\"a\nb\"", 0));
+    }
+
+    @Test
+    void givenOverlappingAlternatives_whenMatch_thenFirstMatchingAlternativeWins() throws UnsupportedRegexException {
+        // given
+        Terminal t = Terminal.of("T", "a|ab");
+        Terminal b = Terminal.of("B", "b");
+        LexerAutomaton automaton = LexerAutomaton.compile(List.of(t, b));
+
+        // when/then
+        assertMatch(automaton, "ab", 0, t, 1);
+        assertMatch(automaton, "ab", 1, b, 1);
+    }
+
+    @Test
+    void givenAmbiguousRegex_whenMatch_thenSameLengthAsPatternLookingAt() throws UnsupportedRegexException {
+        assertSameAsPattern("a|ab", "ab");
+        assertSameAsPattern("ab|a", "ab");
+        assertSameAsPattern("a?(ab)?", "ab");
+        assertSameAsPattern("a?ab", "ab");
+        assertSameAsPattern("(a|ab)(c|bcd)", "abcd");
+        assertSameAsPattern("(a|ab)*c?", "ababac");
+        assertSameAsPattern("a{0,2}a?b", "aaab");
+        assertSameAsPattern("(?:x|xy)+", "xyxyx");
+        assertSameAsPattern("(?:ab|a)(?:b)?", "abb");
+        assertSameAsPattern("(?:x|y?z)*", "xyzx");
+        assertSameAsPattern("(?:x?y){2}", "xyy");
+    }
+
+    @Test
+    void givenRepetitionOfSubexpressionMatchingEmpty_whenCompile_thenThrowException() {
+        // Pattern ends the loop on the empty iteration - (?:x?|y)* matches only "x" of "xy"
+        assertThrows(UnsupportedRegexException.class, () -> LexerAutomaton.compile(List.of(Terminal.of("T", "(?:x?|y)*"))));
+        assertThrows(UnsupportedRegexException.class, () -> LexerAutomaton.compile(List.of(Terminal.of("T", "(?:a*)+"))));
+        assertThrows(UnsupportedRegexException.class, () -> LexerAutomaton.compile(List.of(Terminal.of("T", "(?:a?){1,3}"))));
+    }
+
+    @Test
+    void givenUnsupportedRegex_whenCompile_thenThrowException() {
+        assertThrows(UnsupportedRegexException.class, () -> LexerAutomaton.compile(List.of(Terminal.of("REPEATED", "(a)\\1"))));
+        assertThrows(UnsupportedRegexException.class, () -> LexerAutomaton.compile(List.of(Terminal.of("LOOKAHEAD", "a(?=b)"))));
+        assertThrows(UnsupportedRegexException.class, () -> LexerAutomaton.compile(List.of(Terminal.of("LAZY", "a+?"))));
+    }
+
+    private void assertSameAsPattern(String regex, String input) throws UnsupportedRegexException {
+        LexerAutomaton automaton = LexerAutomaton.compile(List.of(Terminal.of("T", regex)));
+        Matcher matcher = Pattern.compile(regex).matcher(input);
+
+        assertTrue(matcher.lookingAt());
+        assertEquals(matcher.end(), LexerAutomaton.getMatchLength(automaton.longestMatch(input, 0)), regex);
+    }
+
+    private void assertMatch(LexerAutomaton automaton, String input, int from, Terminal expectedTerminal, int expectedLength) {
+        long match = automaton.longestMatch(input, from);
+
+        assertEquals(expectedTerminal, automaton.getTerminal(LexerAutomaton.getMatchTerminal(match)));
+        assertEquals(expectedLength, LexerAutomaton.getMatchLength(match));
+    }
+}
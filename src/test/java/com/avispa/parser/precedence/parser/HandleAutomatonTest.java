@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
+import com.avispa.parser.precedence.grammar.GrammarFile;
+import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import com.avispa.parser.precedence.grammar.SymbolTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static com.avispa.parser.precedence.TestSymbols.add;
+import static com.avispa.parser.precedence.TestSymbols.expression;
+import static com.avispa.parser.precedence.TestSymbols.factor;
+import static com.avispa.parser.precedence.TestSymbols.mul;
+import static com.avispa.parser.precedence.TestSymbols.term;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class HandleAutomatonTest {
+    @Test
+    void givenOperatorPrecedenceGrammar_whenReadingHandles_thenProductionsAccepted() throws IncorrectGrammarException, IOException {
+        // given
+        ContextFreeGrammar grammar = ContextFreeGrammar.fromWithBoundaryMarker(new GrammarFile("src/test/resources/grammar/operator-precedence-grammar.txt"), expression);
+        SymbolTable symbolTable = grammar.getSymbolTable();
+
+        // when
+        HandleAutomaton automaton = HandleAutomaton.compile(grammar.getProductions(), symbolTable);
+
+        // then
+        int termState = automaton.transition(HandleAutomaton.ROOT, symbolTable.getId(term));
+        assertEquals(2, automaton.getProduction(termState)); // expression -> term
+        assertTrue(automaton.hasTransition(termState, symbolTable.getId(add)));
+
+        int addState = automaton.transition(termState, symbolTable.getId(add));
+        assertEquals(HandleAutomaton.NO_PRODUCTION, automaton.getProduction(addState));
+        assertEquals(1, automaton.getProduction(automaton.transition(addState, symbolTable.getId(expression)))); // expression -> expression + term
+
+        assertEquals(4, automaton.getProduction(automaton.transition(HandleAutomaton.ROOT, symbolTable.getId(factor)))); // term -> factor
+        assertFalse(automaton.hasTransition(HandleAutomaton.ROOT, symbolTable.getId(mul)));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
+import com.avispa.parser.precedence.grammar.GrammarFile;
+import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static com.avispa.parser.precedence.TestSymbols.expression;
+import static com.avispa.parser.precedence.TestSymbols.expression_prime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class ParserArtifactTest {
+
+    @Test
+    void givenSimplePrecedenceParser_whenWrittenAndRead_thenSameOutput() throws IncorrectGrammarException, IOException, ParserCreationException, SyntaxException, LexerException {
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/simple-precedence-grammar.txt");
+        SimplePrecedenceParser parser = ParserFactory.newSimplePrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression_prime));
+
+        // when
+        SimplePrecedenceParser loaded = ParserFactory.readSimplePrecedenceParser(new ByteArrayInputStream(write(parser)));
+
+        // then
+        assertEquals(parser.parse("2+3*4"), loaded.parse("2+3*4"));
+        assertTrue(loaded.grammar.getLexerAutomaton().isPresent());
+    }
+
+    @Test
+    void givenWeakPrecedenceParser_whenWrittenAndRead_thenSameOutput() throws IncorrectGrammarException, IOException, ParserCreationException, SyntaxException, LexerException {
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/weak-precedence-grammar.txt");
+        SimplePrecedenceParser parser = ParserFactory.newSimplePrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression));
+
+        // when
+        SimplePrecedenceParser loaded = ParserFactory.readSimplePrecedenceParser(new ByteArrayInputStream(write(parser)));
+
+        // then
+        assertTrue(loaded.table.isWeakPrecedence());
+        assertEquals(parser.parse("5+6"), loaded.parse("5+6"));
+    }
+
+    @Test
+    void givenOperatorPrecedenceParser_whenWrittenAndRead_thenSameOutput() throws IncorrectGrammarException, IOException, ParserCreationException, SyntaxException, LexerException {
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/operator-precedence-grammar.txt");
+        OperatorPrecedenceParser parser = ParserFactory.newOperatorPrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression), false);
+
+        // when
+        OperatorPrecedenceParser loaded = ParserFactory.readOperatorPrecedenceParser(new ByteArrayInputStream(write(parser)));
+
+        // then
+        assertEquals(parser.parse("2+3*4"), loaded.parse("2+3*4"));
+        assertThrows(SyntaxException.class, () -> loaded.parse("12"));
+    }
+
+    @Test
+    void givenOperatorPrecedenceArtifact_whenReadAsSimplePrecedenceParser_thenException() throws IncorrectGrammarException, IOException, ParserCreationException {
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/operator-precedence-grammar.txt");
+        byte[] artifact = write(ParserFactory.newOperatorPrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression)));
+
+        // when/then
+        assertThrows(ParserCreationException.class, () -> ParserFactory.readSimplePrecedenceParser(new ByteArrayInputStream(artifact)));
+    }
+
+    @Test
+    void givenUnknownContent_whenRead_thenException() {
+        // given
+        byte[] content = "not a parser artifact".getBytes();
+
+        // when/then
+        assertThrows(ParserCreationException.class, () -> ParserFactory.readSimplePrecedenceParser(new ByteArrayInputStream(content)));
+    }
+
+    @Test
+    void givenTruncatedArtifact_whenRead_thenException() throws IncorrectGrammarException, IOException, ParserCreationException {
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/simple-precedence-grammar.txt");
+        byte[] artifact = write(ParserFactory.newSimplePrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression_prime)));
+        byte[] truncated = Arrays.copyOf(artifact, artifact.length - 1);
+
+        // when/then
+        assertThrows(ParserCreationException.class, () -> ParserFactory.readSimplePrecedenceParser(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void givenCorruptedArtifact_whenRead_thenRejectedOrParsesWithoutRuntimeErrors() throws IncorrectGrammarException, IOException, ParserCreationException {
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/simple-precedence-grammar.txt");
+        byte[] artifact = write(ParserFactory.newSimplePrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression_prime)));
+
+        for(int position = 0; position < artifact.length; position++) {
+            for(byte value : new byte[] {(byte) 0x80, (byte) 0xFF, 0x7F, 0x01}) {
+                byte[] corrupted = artifact.clone();
+                corrupted[position] = value;
+
+                // when
+                SimplePrecedenceParser loaded;
+                try {
+                    loaded = ParserFactory.readSimplePrecedenceParser(new ByteArrayInputStream(corrupted));
+                } catch (ParserCreationException e) {
+                    continue; // rejected
+                }
+
+                // then - artifact still consistent with its grammar, so parsing may fail only on the input
+                try {
+                    loaded.parse("2+3*4");
+                } catch (SyntaxException | LexerException e) {
+                    // expected for changed relations or terminals
+                } catch (RuntimeException e) {
+                    fail("Artifact corrupted at byte " + position + " loaded, but parsing failed with " + e);
+                }
+            }
+        }
+    }
+
+    private static byte[] write(PrecedenceParser<?> parser) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ParserFactory.writeParser(parser, output);
+        return output.toByteArray();
+    }
+}
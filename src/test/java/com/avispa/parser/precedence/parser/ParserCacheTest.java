@@ -0,0 +1,185 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
+import com.avispa.parser.precedence.grammar.Grammar;
+import com.avispa.parser.precedence.grammar.GrammarFile;
+import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static com.avispa.parser.precedence.TestSymbols.expression;
+import static com.avispa.parser.precedence.TestSymbols.expression_prime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class ParserCacheTest {
+
+    @Test
+    void givenSameGrammarLoadedTwice_whenGetParser_thenSameInstance() throws IncorrectGrammarException, IOException, ParserCreationException {
+        // given
+        ParserCache cache = new ParserCache(4);
+
+        // when
+        SimplePrecedenceParser first = ParserFactory.newSimplePrecedenceParser(simpleGrammar(), true, cache);
+        SimplePrecedenceParser second = ParserFactory.newSimplePrecedenceParser(simpleGrammar(), true, cache);
+
+        // then
+        assertSame(first, second);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void givenDifferentParserConfiguration_whenGetParser_thenDifferentInstances() throws IncorrectGrammarException, IOException, ParserCreationException {
+        // given
+        ParserCache cache = new ParserCache(4);
+        Grammar grammar = simpleGrammar();
+
+        // when
+        SimplePrecedenceParser withFunctions = ParserFactory.newSimplePrecedenceParser(grammar, true, cache);
+        SimplePrecedenceParser withoutFunctions = ParserFactory.newSimplePrecedenceParser(grammar, false, cache);
+
+        // then
+        assertNotSame(withFunctions, withoutFunctions);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void givenFullCache_whenGetParser_thenLeastRecentlyUsedEvicted() throws IncorrectGrammarException, IOException, ParserCreationException {
+        // given
+        ParserCache cache = new ParserCache(1);
+        SimplePrecedenceParser simple = ParserFactory.newSimplePrecedenceParser(simpleGrammar(), true, cache);
+
+        // when
+        ParserFactory.newOperatorPrecedenceParser(operatorGrammar(), true, cache);
+
+        // then
+        assertEquals(1, cache.size());
+        assertNotSame(simple, ParserFactory.newSimplePrecedenceParser(simpleGrammar(), true, cache));
+    }
+
+    @Test
+    void givenDirectory_whenParserEvictedFromMemory_thenLoadedFromArtifact(@TempDir Path directory) throws IncorrectGrammarException, IOException, ParserCreationException, SyntaxException, LexerException {
+        // given
+        ParserCache cache = new ParserCache(4, directory);
+        SimplePrecedenceParser created = ParserFactory.newSimplePrecedenceParser(simpleGrammar(), true, cache);
+        cache.clear();
+
+        // when
+        SimplePrecedenceParser loaded = ParserFactory.newSimplePrecedenceParser(simpleGrammar(), true, cache);
+
+        // then
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        assertNotSame(created, loaded);
+        assertEquals(created.parse("2+3*4"), loaded.parse("2+3*4"));
+    }
+
+    @Test
+    void givenBuilderThrowingError_whenGetParserConcurrently_thenAllCallersReleasedWithSameError() throws Exception {
+        // given
+        ParserCache cache = new ParserCache(4);
+        Grammar grammar = simpleGrammar();
+        StackOverflowError error = new StackOverflowError();
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        AtomicReference<Throwable> ownerResult = new AtomicReference<>();
+        Thread owner = new Thread(() -> {
+            try {
+                cache.get("fingerprint", SimplePrecedenceParser.class, () -> {
+                    building.countDown();
+                    awaitQuietly(release);
+                    throw error;
+                });
+            } catch (Throwable e) {
+                ownerResult.set(e);
+            }
+        });
+
+        AtomicReference<Throwable> waiterResult = new AtomicReference<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                cache.get("fingerprint", SimplePrecedenceParser.class, () -> ParserFactory.newSimplePrecedenceParser(grammar, true));
+            } catch (Throwable e) {
+                waiterResult.set(e);
+            }
+        });
+
+        waiter.setDaemon(true); // must not keep JVM alive if it is never released
+
+        // when
+        owner.start();
+        building.await();
+        waiter.start();
+        while(waiter.getState() != Thread.State.WAITING) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        owner.join(10_000);
+        waiter.join(10_000);
+
+        // then
+        assertFalse(waiter.isAlive());
+        assertSame(error, ownerResult.get());
+        assertSame(error, waiterResult.get());
+        assertEquals(0, cache.size());
+        assertNotNull(cache.get("fingerprint", SimplePrecedenceParser.class, () -> ParserFactory.newSimplePrecedenceParser(grammar, true)));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Grammar simpleGrammar() throws IncorrectGrammarException, IOException {
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/simple-precedence-grammar.txt");
+        return ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression_prime);
+    }
+
+    private static Grammar operatorGrammar() throws IncorrectGrammarException, IOException {
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/operator-precedence-grammar.txt");
+        return ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.precedence.parser;
+
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
+import com.avispa.parser.precedence.grammar.GrammarFile;
+import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import com.avispa.parser.precedence.grammar.Production;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.avispa.parser.precedence.TestSymbols.expression_prime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class ParserSessionTest {
+    private static SimplePrecedenceParser parser;
+
+    @BeforeAll
+    static void init() throws IncorrectGrammarException, IOException, ParserCreationException {
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/simple-precedence-grammar.txt");
+        parser = ParserFactory.newSimplePrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression_prime));
+    }
+
+    @Test
+    void givenInputInChunks_whenFeed_thenSameProductionsAsForCompleteInput() throws SyntaxException, LexerException {
+        // given
+        List<Production> productions = new ArrayList<>();
+        ParserSession session = parser.newSession(collector(productions));
+
+        // when
+        session.feed("2+");
+        session.feed(CharBuffer.wrap("3*"));
+        session.feed("4");
+        session.finish();
+
+        // then
+        assertEquals(parser.parse("2+3*4"), productions);
+    }
+
+    @Test
+    void givenNoInput_whenFinish_thenNoProductions() throws SyntaxException, LexerException {
+        // given
+        List<Production> productions = new ArrayList<>();
+        ParserSession session = parser.newSession(collector(productions));
+
+        // when
+        session.finish();
+
+        // then
+        assertEquals(List.of(), productions);
+    }
+
+    @Test
+    void givenFinishedSession_whenFeed_thenThrowException() throws SyntaxException, LexerException {
+        // given
+        ParserSession session = parser.newSession(new ParseListener() {});
+        session.feed("2");
+        session.finish();
+
+        // when/then
+        assertThrows(IllegalStateException.class, () -> session.feed("+3"));
+    }
+
+    private static ParseListener collector(List<Production> productions) {
+        return new ParseListener() {
+            @Override
+            public void reduce(Reduction reduction) {
+                productions.add(reduction.toProduction());
+            }
+        };
+    }
+}
@@ -34,7 +34,13 @@ import com.avispa.parser.precedence.lexer.Lexeme;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.avispa.parser.precedence.TestSymbols.add;
@@ -45,7 +51,9 @@ import static com.avispa.parser.precedence.TestSymbols.number;
 import static com.avispa.parser.precedence.TestSymbols.term;
 import static com.avispa.parser.precedence.TestSymbols.term_prime;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Rafał Hiszpański
@@ -88,6 +96,45 @@ class SimplePrecedenceParserTest {
         assertEquals(expectedProductions, simpleParser.parse("2"));
     }
 
+    @Test
+    void givenNumber_whenParse_thenProductionIdsAvailable() throws SyntaxException, LexerException {
+        // when
+        List<Production> output = simpleParser.parse("2");
+
+        // then
+        ProductionList productions = assertInstanceOf(ProductionList.class, output);
+        assertEquals(5, productions.size());
+        assertEquals(7, productions.getProductionId(0)); // factor -> NUMBER
+        assertEquals(1, productions.getProductionId(4)); // expression_prime -> expression
+    }
+
+    @Test
+    void givenSimpleAddition_whenParseWithListener_thenEventsReportedWithOffsets() throws SyntaxException, LexerException {
+        // given
+        List<String> events = new ArrayList<>();
+        ParseListener listener = new ParseListener() {
+            @Override
+            public void shift(Lexeme lexeme) {
+                events.add("shift " + lexeme.getValue() + " " + lexeme.getOffset());
+            }
+
+            @Override
+            public void reduce(Reduction reduction) {
+                events.add("reduce " + reduction.getProductionId() + " " + reduction.getStartOffset() + "-" + reduction.getEndOffset());
+            }
+        };
+
+        // when
+        simpleParser.parse("2+3", listener);
+
+        // then
+        assertEquals(List.of(
+                "shift 2 0", "reduce 7 0-1", "reduce 6 0-1", "reduce 4 0-1", "reduce 3 0-1",
+                "shift + 1",
+                "shift 3 2", "reduce 7 2-3", "reduce 6 2-3", "reduce 4 2-3",
+                "reduce 2 0-3", "reduce 1 0-3"), events);
+    }
+
     @Test
     void givenSimpleAddition_whenParse_thenCorrectOutput() throws SyntaxException, LexerException {
         List<Production> expectedProductions = getAdditionProductions("2", "3");
@@ -95,6 +142,48 @@ class SimplePrecedenceParserTest {
         assertEquals(expectedProductions, simpleParser.parse("2+3"));
     }
 
+    @Test
+    void givenReader_whenParse_thenSameOutputAsForString() throws SyntaxException, LexerException, IOException {
+        // given
+        String input = "2+3*4+5";
+
+        // when
+        List<Production> output = simpleParser.parse(new StringReader(input));
+
+        // then
+        assertEquals(simpleParser.parse(input), output);
+    }
+
+    @Test
+    void givenReaderWithLexemeAcrossReadWindows_whenParse_thenSameOutputAsForString() throws IncorrectGrammarException, IOException, ParserCreationException, SyntaxException, LexerException {
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/simple-precedence-grammar-numbers.txt");
+        SimplePrecedenceParser parser = ParserFactory.newSimplePrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression_prime));
+
+        String prefix = "1+".repeat(PrecedenceParser.READ_BUFFER_SIZE / 2 - 2); // ends 4 characters before the window end
+        String input = prefix + "123456789" + "*2+3".repeat(PrecedenceParser.READ_BUFFER_SIZE / 2);
+
+        // when
+        List<Production> output = parser.parse(new StringReader(input));
+
+        // then
+        assertTrue(input.length() > 2 * PrecedenceParser.READ_BUFFER_SIZE);
+        assertEquals(parser.parse(input), output);
+    }
+
+    @Test
+    void givenChannel_whenParse_thenSameOutputAsForString() throws SyntaxException, LexerException, IOException {
+        // given
+        String input = "2+3";
+        ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+
+        // when
+        List<Production> output = simpleParser.parse(channel, StandardCharsets.UTF_8);
+
+        // then
+        assertEquals(getAdditionProductions("2", "3"), output);
+    }
+
     @Test
     void givenIncorrectInput_whenParse_thenOutputReturned() {
         assertThrows(SyntaxException.class, () -> simpleParser.parse("12"));
@@ -29,6 +29,7 @@ import com.avispa.parser.precedence.grammar.GrammarFile;
 import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
 import com.avispa.parser.precedence.grammar.Production;
 import com.avispa.parser.precedence.grammar.Symbol;
+import com.avispa.parser.precedence.grammar.SymbolTable;
 import com.avispa.parser.precedence.grammar.Terminal;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
@@ -81,6 +82,29 @@ class SimplePrecedenceTableTest {
         assertEquals(expected.entrySet(), precedenceTable.get().entrySet());
     }
 
+    @Test
+    void givenSimpleGrammar_whenPrecedenceTable_thenMatrixMatchesTable() throws IncorrectGrammarException, PrecedenceTableException {
+        // given
+        Set<Terminal> terminals = Set.of(a, b);
+
+        List<Production> productions = List.of(Production.of(A, List.of(B, a, a)), Production.of(B, List.of(b)));
+
+        ContextFreeGrammar grammar = ContextFreeGrammar.from("Test", terminals, productions, A);
+
+        // when
+        SimplePrecedenceTable precedenceTable = new SimplePrecedenceTable(grammar);
+
+        // then
+        SymbolTable symbolTable = grammar.getSymbolTable();
+        PrecedenceMatrix matrix = precedenceTable.getMatrix();
+        for(Symbol left : symbolTable.getSymbols()) {
+            for(Symbol right : symbolTable.getSymbols()) {
+                assertEquals(precedenceTable.get().get(Pair.of(left, right)), matrix.getPrecedence(left.getId(), right.getId()));
+            }
+        }
+        assertEquals(Precedence.GREATER_THAN, precedenceTable.get(b, a));
+    }
+
     @Test
     void givenNonOperatorGrammar_whenPrecedenceTable_thenThrowException() throws IncorrectGrammarException {
         // given
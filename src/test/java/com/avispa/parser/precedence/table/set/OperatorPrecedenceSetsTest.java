@@ -73,6 +73,27 @@ class OperatorPrecedenceSetsTest {
         assertEquals(Set.of(a), lastOp.getFor(A));
     }
 
+    @Test
+    void givenMutuallyRecursiveProductions_whenSetsCreated_thenAreCorrect() throws IncorrectGrammarException {
+        // given
+        Set<Terminal> terminals = Set.of(a, b);
+
+        List<Production> productions = List.of(Production.of(A, List.of(B, b)),
+                Production.of(B, List.of(A, a)),
+                Production.of(B, List.of(a)));
+
+        // when
+        var grammar = ContextFreeGrammar.from("Test", terminals, productions, A);
+        var firstOp = new FirstOpSets(grammar);
+        var lastOp = new LastOpSets(grammar);
+
+        // then
+        assertEquals(Set.of(a, b), firstOp.getFor(A));
+        assertEquals(Set.of(a, b), firstOp.getFor(B));
+        assertEquals(Set.of(b), lastOp.getFor(A));
+        assertEquals(Set.of(a), lastOp.getFor(B));
+    }
+
     @Test
     void givenProductionWithNonTerminalOnRhs_whenSetsCreated_thenAreCorrect() throws IncorrectGrammarException {
         // given
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.service;
+
+import com.avispa.parser.Parser;
+import com.avispa.parser.precedence.parser.SyntaxException;
+import com.avispa.parser.shuntingyard.ShuntingYard;
+import com.avispa.parser.token.Token;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class ParseServiceTest {
+    private ExecutorService executor;
+    private CountDownLatch started;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void init() {
+        executor = Executors.newCachedThreadPool();
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void cleanup() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenCorrectInput_whenParse_thenOutputReturnedAndMetricsUpdated() throws Exception {
+        // given
+        ParseService<Token> service = new ParseService<>(new ShuntingYard(), executor, 2, Duration.ofSeconds(5));
+
+        // when
+        List<Token> output = service.parse("2+3");
+
+        // then
+        assertEquals(new ShuntingYard().parse("2+3"), output);
+        assertEquals(1, service.getMetrics().getAdmitted());
+        assertEquals(1, service.getMetrics().getCompleted());
+        assertEquals(0, service.getActiveRequests());
+    }
+
+    @Test
+    void givenIncorrectInput_whenParse_thenParserExceptionThrown() {
+        // given
+        ParseService<Token> service = new ParseService<>(new ShuntingYard(), executor, 2, Duration.ofSeconds(5));
+
+        // when/then
+        assertThrows(SyntaxException.class, () -> service.parse("(2+3"));
+        assertEquals(1, service.getMetrics().getFailed());
+    }
+
+    @Test
+    void givenLimitReached_whenParse_thenRequestRejected() throws Exception {
+        // given
+        ParseService<String> service = new ParseService<>(blockingParser(), executor, 1, Duration.ofSeconds(5));
+        Future<List<String>> first = executor.submit(() -> service.parse("first"));
+        started.await(5, TimeUnit.SECONDS);
+
+        // when/then
+        assertThrows(ParseRejectedException.class, () -> service.parse("second"));
+        release.countDown();
+        assertEquals(List.of("first"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, service.getMetrics().getRejected());
+    }
+
+    @Test
+    void givenSlowParser_whenParse_thenTimeoutAndPermitReleasedWhenTaskStops() throws Exception {
+        // given
+        ParseService<String> service = new ParseService<>(blockingParser(), executor, 1, Duration.ofMillis(50));
+
+        // when
+        assertThrows(TimeoutException.class, () -> service.parse("slow"));
+
+        // then
+        assertEquals(1, service.getMetrics().getTimedOut());
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS); // cancelled task was interrupted
+        assertEquals(0, service.getActiveRequests());
+    }
+
+    private Parser<String> blockingParser() {
+        return input -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SyntaxException("Interrupted");
+            }
+            return List.of(input.toString());
+        };
+    }
+}
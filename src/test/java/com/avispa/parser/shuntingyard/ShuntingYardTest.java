@@ -29,6 +29,9 @@ import com.avispa.parser.precedence.parser.SyntaxException;
 import com.avispa.parser.shuntingyard.output.ReversePolishNotationText;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -54,6 +57,18 @@ class ShuntingYardTest {
         assertEquals("2 3 +", shuntingYard.parse("2+3"));
     }
 
+    @Test
+    void givenSimpleAddition_whenParseWithConsumer_thenTokensStreamedInOrder() throws SyntaxException, LexerException {
+        // given
+        List<String> tokens = new ArrayList<>();
+
+        // when
+        new ShuntingYard().parse("2+3*4", token -> tokens.add(token.getValue()));
+
+        // then
+        assertEquals(List.of("2", "3", "4", "*", "+"), tokens);
+    }
+
     @Test
     void givenInputWithWhitespaces_whenParse_thenCorrectOutput() throws SyntaxException, LexerException {
         assertEquals("2 3 +", shuntingYard.parse("   2 \t + \r\n 3 \t"));
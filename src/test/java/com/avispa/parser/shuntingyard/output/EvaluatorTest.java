@@ -38,6 +38,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
  */
 class EvaluatorTest {
     private static final Evaluator evaluator = new Evaluator();
+    private static final Evaluator doubleEvaluator = new Evaluator(NumericMode.DOUBLE);
 
     @Test
     void givenNothing_whenParse_thenReturnZero() throws SyntaxException, LexerException {
@@ -78,4 +79,33 @@ class EvaluatorTest {
     void givenComplexExpression_whenParse_thenCorrectResult() throws SyntaxException, LexerException {
         assertEquals(new BigDecimal("11"), evaluator.parse("15.4 - 16.4 + (4 * max(2, 3))"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenLongFlatExpression_whenParse_thenCorrectResult() throws SyntaxException, LexerException {
+        String expression = "1" + "+2".repeat(99_999);
+        assertEquals(new BigDecimal("199999"), evaluator.parse(expression));
+    }
+
+    @Test
+    void givenComplexExpression_whenParseInDoubleMode_thenSameResultAsExactMode() throws SyntaxException, LexerException {
+        String expression = "-(2 + 3) * 4 ^ 2 - max(5, sqrt(16)) + mod(3, 7)";
+        assertEquals(evaluator.parse(expression), doubleEvaluator.parse(expression));
+    }
+
+    @Test
+    void givenDivision_whenParseInDoubleMode_thenResultNotRoundedToDividendScale() throws SyntaxException, LexerException {
+        assertEquals(new BigDecimal("3"), evaluator.parse("10/4"));
+        assertEquals(new BigDecimal("2.5"), doubleEvaluator.parse("10/4"));
+    }
+
+    @Test
+    void givenDivisionByZero_whenParseInDoubleMode_thenThrowError() {
+        assertThrows(ArithmeticException.class, () -> doubleEvaluator.parse("1/0"));
+    }
+
+    @Test
+    void givenLongFlatExpression_whenParseInDoubleMode_thenCorrectResult() throws SyntaxException, LexerException {
+        String expression = "1" + "+2".repeat(99_999);
+        assertEquals(new BigDecimal("199999"), doubleEvaluator.parse(expression));
+    }
+}
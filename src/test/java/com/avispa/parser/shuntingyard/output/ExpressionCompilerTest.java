@@ -0,0 +1,162 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.shuntingyard.output;
+
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.parser.SyntaxException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author Rafał Hiszpański
+ */
+class ExpressionCompilerTest {
+    private static final ExpressionCompiler compiler = new ExpressionCompiler();
+
+    @Test
+    void givenExpressionWithVariables_whenEvaluatedWithArray_thenCorrectResult() throws SyntaxException, LexerException {
+        // given
+        CompiledExpression expression = compiler.parse("price * (1 + tax) - discount + price");
+
+        // when
+        BigDecimal result = expression.evaluate(new BigDecimal("100"), new BigDecimal("0.2"), new BigDecimal("5"));
+
+        // then
+        assertEquals(List.of("price", "tax", "discount"), expression.getVariables());
+        assertEquals(new BigDecimal("215"), result);
+    }
+
+    @Test
+    void givenExpressionWithVariables_whenEvaluatedWithMap_thenCorrectResult() throws SyntaxException, LexerException {
+        // given
+        CompiledExpression expression = compiler.parse("max(a, b) ^ 2");
+
+        // when
+        BigDecimal result = expression.evaluate(Map.of("a", new BigDecimal("-7"), "b", new BigDecimal("3")));
+
+        // then
+        assertEquals(new BigDecimal("9"), result);
+    }
+
+    @Test
+    void givenExpressionWithVariables_whenEvaluatedAsDouble_thenCorrectResult() throws SyntaxException, LexerException {
+        // given
+        CompiledExpression expression = compiler.parse("price * (1 + tax) - max(discount, 2) / 2");
+
+        // when
+        double result = expression.evaluateDouble(100, 0.25, 5);
+
+        // then
+        assertEquals(122.5, result);
+    }
+
+    @Test
+    void givenDivisionByZero_whenEvaluatedAsDouble_thenThrowError() throws SyntaxException, LexerException {
+        CompiledExpression expression = compiler.parse("a / b");
+        assertThrows(ArithmeticException.class, () -> expression.evaluateDouble(1, 0));
+        assertThrows(ArithmeticException.class, () -> expression.evaluateDouble(0, 0));
+    }
+
+    @Test
+    void givenExpressionWithVariables_whenCompiledToFunction_thenSameResultAsEvaluateDouble() throws SyntaxException, LexerException {
+        // given
+        CompiledExpression expression = compiler.parse("-x ^ 2 + mod(y, 7) * max(x, sqrt(y)) / (x - y)");
+        ToDoubleFunction<double[]> function = expression.toDoubleFunction();
+
+        // when
+        double result = function.applyAsDouble(new double[] {3, 16});
+
+        // then
+        assertEquals(expression.evaluateDouble(3, 16), result);
+    }
+
+    @Test
+    void givenDivisionByZero_whenCompiledFunctionApplied_thenThrowError() throws SyntaxException, LexerException {
+        ToDoubleFunction<double[]> function = compiler.parse("a / b").toDoubleFunction();
+        assertThrows(ArithmeticException.class, () -> function.applyAsDouble(new double[] {1, 0}));
+    }
+
+    @Test
+    void givenEmptyExpression_whenCompiledToFunction_thenReturnZero() throws SyntaxException, LexerException {
+        assertEquals(0, compiler.parse("").toDoubleFunction().applyAsDouble(new double[0]));
+    }
+
+    @Test
+    void givenWrongNumberOfValues_whenCompiledFunctionApplied_thenThrowException() throws SyntaxException, LexerException {
+        ToDoubleFunction<double[]> function = compiler.parse("a + b").toDoubleFunction();
+        assertThrows(IllegalArgumentException.class, () -> function.applyAsDouble(new double[] {1}));
+    }
+
+    @Test
+    void givenExpressionWithoutVariables_whenEvaluated_thenSameResultAsEvaluator() throws SyntaxException, LexerException {
+        String expression = "15.4 - 16.4 + (4 * max(2, 3)) / 2";
+        assertEquals(new Evaluator().parse(expression), compiler.parse(expression).evaluate());
+    }
+
+    @Test
+    void givenMissingVariableValue_whenEvaluated_thenThrowException() throws SyntaxException, LexerException {
+        CompiledExpression expression = compiler.parse("a + b");
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluate(Map.of("a", BigDecimal.ONE)));
+    }
+
+    @Test
+    void givenMissingOperator_whenCompile_thenThrowException() {
+        assertThrows(SyntaxException.class, () -> compiler.parse("2 a"));
+        assertThrows(SyntaxException.class, () -> compiler.parse("rate time"));
+    }
+
+    @Test
+    void givenCompiledExpression_whenEvaluatedConcurrently_thenCorrectResults() throws Exception {
+        // given
+        CompiledExpression expression = compiler.parse("x * x + 1");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // when
+            List<Future<BigDecimal>> results = IntStream.range(0, 100)
+                    .mapToObj(i -> executor.submit(() -> expression.evaluate(BigDecimal.valueOf(i))))
+                    .collect(Collectors.toList());
+
+            // then
+            for(int i = 0; i < results.size(); i++) {
+                assertEquals(BigDecimal.valueOf((long) i * i + 1).stripTrailingZeros(), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -26,14 +26,17 @@ package com.avispa.parser.shuntingyard.tokenizer;
 
 import com.avispa.parser.lexer.LexerException;
 import com.avispa.parser.shuntingyard.token.BinaryOperatorToken;
+import com.avispa.parser.shuntingyard.token.FunctionToken;
 import com.avispa.parser.shuntingyard.token.Misc;
 import com.avispa.parser.shuntingyard.token.Operand;
 import com.avispa.parser.shuntingyard.token.UnaryOperatorToken;
+import com.avispa.parser.shuntingyard.token.Variable;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
@@ -51,7 +54,7 @@ class TokenizerTest {
 
     @Test
     void givenUnknownSymbol_whenTokenize_thenThrowException() {
-        assertThrows(LexerException.class, () -> tokenizer.tokenize("a"));
+        assertThrows(LexerException.class, () -> tokenizer.tokenize("#"));
     }
 
     @Test
@@ -99,4 +102,55 @@ class TokenizerTest {
         var expected = List.of(two, BinaryOperatorToken.MULTIPLY, Operand.from("3"));
         assertEquals(expected.toString(), tokenizer.tokenize("2*3").toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenDecimalOperands_whenTokenize_thenValuesWithScalePreserved() throws LexerException {
+        assertEquals(List.of(Operand.from("2.50"), BinaryOperatorToken.ADD, Operand.from(".5"), BinaryOperatorToken.ADD, Operand.from("3.")),
+                tokenizer.tokenize("2.50+.5+3."));
+    }
+
+    @Test
+    void givenOperandLongerThanLong_whenTokenize_thenExactValue() throws LexerException {
+        assertEquals(List.of(Operand.from("12345678901234567890.125")), tokenizer.tokenize("12345678901234567890.125"));
+    }
+
+    @Test
+    void givenWhitespaces_whenTokenize_thenWhitespacesIgnored() throws LexerException {
+        var expected = List.of(FunctionToken.MAX, Misc.LEFT_PARENTHESIS, Operand.from("12"), Misc.COMMA, two, Misc.RIGHT_PARENTHESIS);
+        assertEquals(expected, tokenizer.tokenize(" max( 1 2 ,\t2 ) "));
+    }
+
+    @Test
+    void givenSingleDot_whenTokenize_thenThrowException() {
+        assertThrows(LexerException.class, () -> tokenizer.tokenize("2+."));
+    }
+
+    @Test
+    void givenExpression_whenStream_thenTokensReadOneByOne() throws LexerException {
+        // given
+        Tokenizer.TokenStream stream = tokenizer.stream("-2*2");
+
+        // when/then
+        assertEquals(UnaryOperatorToken.MINUS, stream.next());
+        assertEquals(two, stream.next());
+        assertEquals(BinaryOperatorToken.MULTIPLY, stream.next());
+        assertEquals(two, stream.next());
+        assertNull(stream.next());
+    }
+
+    @Test
+    void givenIdentifiers_whenTokenize_thenVariablesAndFunctionsDetected() throws LexerException {
+        var expected = List.of(FunctionToken.MAX, Misc.LEFT_PARENTHESIS, Variable.of("max_price"), Misc.COMMA, Variable.of("x2"), Misc.RIGHT_PARENTHESIS);
+        assertEquals(expected, tokenizer.tokenize("max(max_price, x2)"));
+    }
+
+    @Test
+    void givenMinusPrecedingVariable_whenTokenize_thenBinaryOperatorAfterVariable() throws LexerException {
+        assertEquals(List.of(UnaryOperatorToken.MINUS, Variable.of("a"), BinaryOperatorToken.SUBTRACT, two), tokenizer.tokenize("-a-2"));
+    }
+
+    @Test
+    void givenIdentifiersSeparatedByWhitespace_whenTokenize_thenSeparateVariables() throws LexerException {
+        assertEquals(List.of(Variable.of("a"), Variable.of("b")), tokenizer.tokenize("a b"));
+    }
+}
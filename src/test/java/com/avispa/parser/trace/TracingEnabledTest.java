@@ -0,0 +1,80 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2022 Rafał Hiszpański
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.avispa.parser.trace;
+
+import com.avispa.parser.lexer.LexerException;
+import com.avispa.parser.precedence.grammar.ContextFreeGrammar;
+import com.avispa.parser.precedence.grammar.GrammarFile;
+import com.avispa.parser.precedence.grammar.IncorrectGrammarException;
+import com.avispa.parser.precedence.parser.ParserCreationException;
+import com.avispa.parser.precedence.parser.ParserFactory;
+import com.avispa.parser.precedence.parser.PrecedenceParser;
+import com.avispa.parser.precedence.parser.SimplePrecedenceParser;
+import com.avispa.parser.precedence.parser.SyntaxException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.avispa.parser.precedence.TestSymbols.expression_prime;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Requires {@value Tracing#PROPERTY} system property to be set, so it is run by the separate surefire execution
+ *
+ * @author Rafał Hiszpański
+ */
+class TracingEnabledTest {
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void restoreTracer() {
+        Tracing.setTracer(new Slf4jTracer());
+    }
+
+    @Test
+    void givenTracingEnabled_whenParse_thenShiftAndReduceEventsTraced() throws IncorrectGrammarException, IOException, ParserCreationException, SyntaxException, LexerException {
+        assumeTrue(Tracing.ENABLED, "Tracing is disabled");
+
+        // given
+        GrammarFile grammarFile = new GrammarFile("src/test/resources/grammar/simple-precedence-grammar.txt");
+        SimplePrecedenceParser parser = ParserFactory.newSimplePrecedenceParser(ContextFreeGrammar.fromWithBoundaryMarker(grammarFile, expression_prime));
+        Tracing.setTracer((source, message, arguments) -> {
+            if(source == PrecedenceParser.class) {
+                events.add(message);
+            }
+        });
+
+        // when
+        parser.parse("2+3*4");
+
+        // then
+        assertTrue(events.stream().anyMatch(message -> message.startsWith("SHIFT")));
+        assertTrue(events.stream().anyMatch(message -> message.startsWith("REDUCE")));
+    }
+}